@@ -0,0 +1,88 @@
+package com.tablegen.bench;
+
+import com.tablegen.core.ColumnMeta;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic column sets shaped like real schemas: snake_case and camelCase names built from a
+ * small vocabulary (so names repeat across tables), about 60% Korean comments, a few money columns.
+ */
+public final class ColumnFixtures {
+
+    private static final String[] ENTITIES = {
+        "user", "order", "prod", "cust", "dept", "item", "pay", "ship", "cart", "member"
+    };
+    private static final String[] SUFFIXES = {
+        "id", "nm", "cd", "amt", "price", "fee", "yn", "dt", "date", "cnt", "seq", "desc", "status", "type"
+    };
+    private static final String[] COMMON = {
+        "reg_date", "reg_id", "upd_date", "upd_id", "use_yn", "del_yn", "sort_ord"
+    };
+    private static final String[] COMMENT_WORDS = {
+        "사용자", "주문", "상품", "고객", "부서", "금액", "수수료", "일자", "여부", "코드", "명", "순번", "상태", "유형"
+    };
+    private static final String[] TYPES = {
+        "varchar(50)", "varchar(200)", "int(11)", "bigint(20)", "decimal(15,2)", "datetime", "char(1)", "text"
+    };
+
+    private ColumnFixtures() {}
+
+    public static List<ColumnMeta> columns(int count, long seed) {
+        Random random = new Random(seed);
+        List<ColumnMeta> columns = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = columnName(random, i);
+            String comment = random.nextInt(10) < 6
+                    ? COMMENT_WORDS[random.nextInt(COMMENT_WORDS.length)] + " " + COMMENT_WORDS[random.nextInt(COMMENT_WORDS.length)]
+                    : "";
+            columns.add(new ColumnMeta(
+                    name,
+                    TYPES[random.nextInt(TYPES.length)],
+                    random.nextBoolean(),
+                    i == 0,
+                    comment,
+                    i + 1));
+        }
+        return columns;
+    }
+
+    /**
+     * A schema of tables whose column counts add up to roughly totalColumns.
+     */
+    public static Map<String, List<ColumnMeta>> schema(int totalColumns, int columnsPerTable, long seed) {
+        Map<String, List<ColumnMeta>> tables = new LinkedHashMap<>();
+        int tableCount = Math.max(1, totalColumns / columnsPerTable);
+        for (int t = 0; t < tableCount; t++) {
+            tables.put(String.format("tb_%s_%04d", ENTITIES[t % ENTITIES.length], t), columns(columnsPerTable, seed + t));
+        }
+        return tables;
+    }
+
+    public static List<String> names(List<ColumnMeta> columns) {
+        List<String> names = new ArrayList<>(columns.size());
+        for (ColumnMeta col : columns) {
+            names.add(col.name());
+        }
+        return names;
+    }
+
+    private static String columnName(Random random, int index) {
+        int roll = random.nextInt(10);
+        if (roll < 2) {
+            return COMMON[random.nextInt(COMMON.length)];
+        }
+        String entity = ENTITIES[random.nextInt(ENTITIES.length)];
+        String suffix = SUFFIXES[random.nextInt(SUFFIXES.length)];
+        if (roll < 4) {
+            // camelCase, e.g. orderAmt
+            return entity + Character.toUpperCase(suffix.charAt(0)) + suffix.substring(1);
+        }
+        // Wide tables need unique names; numbering kicks in only past the vocabulary size
+        return index < 100 ? entity + "_" + suffix : entity + "_" + suffix + "_" + index;
+    }
+}
@@ -0,0 +1,179 @@
+package com.tablegen.bench;
+
+import com.tablegen.core.ColumnMeta;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory JDBC objects (dynamic proxies) so MetaReader can be benchmarked without a server.
+ *
+ * Statements are routed by their SQL: catalog queries (selecting ORDINAL_POSITION) return the catalog
+ * rows filtered by the bound schema/table parameters, comment lookups return (TABLE_SCHEMA, TABLE_NAME,
+ * COLUMN_NAME, COLUMN_COMMENT) rows, and anything else is treated as a user query whose result metadata is {@code queryColumns}.
+ */
+public final class FakeJdbc {
+
+    private FakeJdbc() {}
+
+    public static Connection connection(String productName, String schema,
+                                        Map<String, List<ColumnMeta>> tables,
+                                        List<ColumnMeta> queryColumns) {
+        DatabaseMetaData dbMeta = proxy(DatabaseMetaData.class, (p, m, args) -> switch (m.getName()) {
+            case "getDatabaseProductName" -> productName;
+            case "getURL" -> "jdbc:fake:" + productName.toLowerCase();
+            default -> unsupported(m.getName());
+        });
+
+        return proxy(Connection.class, (p, m, args) -> switch (m.getName()) {
+            case "getMetaData" -> dbMeta;
+            case "prepareStatement" -> statement((String) args[0], schema, tables, queryColumns);
+            case "isValid" -> true;
+            case "isClosed", "isWrapperFor" -> false;
+            case "getAutoCommit" -> true;
+            case "close", "setReadOnly", "setAutoCommit", "clearWarnings" -> null;
+            case "hashCode" -> System.identityHashCode(p);
+            case "equals" -> p == args[0];
+            case "toString" -> "FakeConnection[" + productName + "]";
+            default -> unsupported(m.getName());
+        });
+    }
+
+    private static PreparedStatement statement(String sql, String schema,
+                                               Map<String, List<ColumnMeta>> tables,
+                                               List<ColumnMeta> queryColumns) {
+        Map<Integer, String> params = new HashMap<>();
+        String upper = sql.toUpperCase();
+        return proxy(PreparedStatement.class, (p, m, args) -> switch (m.getName()) {
+            case "setString" -> {
+                params.put((Integer) args[0], (String) args[1]);
+                yield null;
+            }
+            case "setFetchSize", "setQueryTimeout", "setMaxRows", "close", "clearParameters", "cancel" -> null;
+            case "executeQuery" -> {
+                if (upper.contains("ORDINAL_POSITION") || upper.contains("COLUMN_ID")) {
+                    yield catalogRows(schema, tables, params);
+                }
+                if (upper.contains("COMMENT")) {
+                    yield commentRows(schema, tables, params);
+                }
+                yield resultSet(List.of(), List.of(), queryColumns);
+            }
+            case "getMetaData" -> resultSetMeta(queryColumns);
+            case "isClosed" -> false;
+            case "hashCode" -> System.identityHashCode(p);
+            case "equals" -> p == args[0];
+            default -> unsupported(m.getName());
+        });
+    }
+
+    private static ResultSet catalogRows(String schema, Map<String, List<ColumnMeta>> tables, Map<Integer, String> params) {
+        List<String> wanted = new ArrayList<>();
+        for (int i = 2; params.containsKey(i); i++) {
+            wanted.add(params.get(i));
+        }
+        List<Object[]> rows = new ArrayList<>();
+        if (schema.equals(params.get(1))) {
+            for (Map.Entry<String, List<ColumnMeta>> table : tables.entrySet()) {
+                if (!wanted.isEmpty() && !wanted.contains(table.getKey())) continue;
+                for (ColumnMeta col : table.getValue()) {
+                    rows.add(new Object[]{
+                        table.getKey(), col.name(), col.type(), col.isNullable() ? "YES" : "NO",
+                        col.isKey() ? "PRI" : "", col.comment(), col.ordinalPosition()
+                    });
+                }
+            }
+        }
+        return resultSet(List.of("TABLE_NAME", "COLUMN_NAME", "COLUMN_TYPE", "IS_NULLABLE", "COLUMN_KEY",
+                "COLUMN_COMMENT", "ORDINAL_POSITION"), rows, List.of());
+    }
+
+    private static ResultSet commentRows(String schema, Map<String, List<ColumnMeta>> tables, Map<Integer, String> params) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String value : params.values()) {
+            List<ColumnMeta> columns = tables.get(value);
+            if (columns == null) continue;
+            for (ColumnMeta col : columns) {
+                rows.add(new Object[]{schema, value, col.name(), col.comment()});
+            }
+        }
+        return resultSet(List.of("TABLE_SCHEMA", "TABLE_NAME", "COLUMN_NAME", "COLUMN_COMMENT"), rows, List.of());
+    }
+
+    private static ResultSet resultSet(List<String> labels, List<Object[]> rows, List<ColumnMeta> metaColumns) {
+        Map<String, Integer> index = new LinkedHashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            index.put(labels.get(i), i);
+        }
+        ResultSetMetaData meta = resultSetMeta(metaColumns);
+        int[] cursor = {-1};
+        boolean[] wasNull = {false};
+        return proxy(ResultSet.class, (p, m, args) -> {
+            switch (m.getName()) {
+                case "next":
+                    return ++cursor[0] < rows.size();
+                case "getString":
+                case "getInt":
+                case "getObject": {
+                    Object[] row = rows.get(cursor[0]);
+                    int col = args[0] instanceof Integer i ? i - 1 : index.get(((String) args[0]).toUpperCase());
+                    Object value = row[col];
+                    wasNull[0] = value == null;
+                    if (m.getName().equals("getInt")) return value == null ? 0 : ((Number) value).intValue();
+                    if (m.getName().equals("getString")) return value == null ? null : value.toString();
+                    return value;
+                }
+                case "wasNull":
+                    return wasNull[0];
+                case "getMetaData":
+                    return meta;
+                case "close":
+                case "setFetchSize":
+                    return null;
+                case "isClosed":
+                    return false;
+                default:
+                    return unsupported(m.getName());
+            }
+        });
+    }
+
+    private static ResultSetMetaData resultSetMeta(List<ColumnMeta> columns) {
+        return proxy(ResultSetMetaData.class, (p, m, args) -> switch (m.getName()) {
+            case "getColumnCount" -> columns.size();
+            case "getColumnLabel", "getColumnName" -> columns.get((Integer) args[0] - 1).name();
+            case "getColumnTypeName" -> columns.get((Integer) args[0] - 1).type();
+            case "isNullable" -> columns.get((Integer) args[0] - 1).isNullable()
+                    ? ResultSetMetaData.columnNullable : ResultSetMetaData.columnNoNulls;
+            case "getTableName", "getSchemaName", "getCatalogName" -> "";
+            default -> unsupported(m.getName());
+        });
+    }
+
+    private static Object unsupported(String method) throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException("FakeJdbc does not implement " + method);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(FakeJdbc.class.getClassLoader(), new Class<?>[]{type}, (p, m, args) -> {
+            try {
+                return handler.invoke(p, m, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
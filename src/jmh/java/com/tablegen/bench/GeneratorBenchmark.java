@@ -0,0 +1,63 @@
+package com.tablegen.bench;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.generator.HtmlGenerator;
+import com.tablegen.generator.MustacheGenerator;
+import com.tablegen.generator.TableGenerator;
+import com.tablegen.generator.ThymeleafGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"10", "500", "10000"})
+    public int columnCount;
+
+    @Param({"HTML", "THYMELEAF", "MUSTACHE"})
+    public String template;
+
+    private List<ColumnMeta> columns;
+    private TableGenerator generator;
+
+    @Setup
+    public void setup() {
+        columns = ColumnFixtures.columns(columnCount, 42);
+        generator = switch (template) {
+            case "THYMELEAF" -> new ThymeleafGenerator();
+            case "MUSTACHE" -> new MustacheGenerator();
+            default -> new HtmlGenerator();
+        };
+    }
+
+    /** The String convenience API, as used by the clipboard path. */
+    @Benchmark
+    public String generateString() {
+        return generator.generate(columns);
+    }
+
+    /** The streaming API with the output discarded, as used by file and HTTP output. */
+    @Benchmark
+    public void generateToWriter() throws IOException {
+        generator.generate(columns, Writer.nullWriter());
+    }
+}
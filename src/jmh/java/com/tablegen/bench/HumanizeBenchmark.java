@@ -0,0 +1,46 @@
+package com.tablegen.bench;
+
+import com.tablegen.core.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HumanizeBenchmark {
+
+    // 10000 names include numbered ones, so the label cache also sees churn
+    @Param({"10", "500", "10000"})
+    public int columnCount;
+
+    private String[] names;
+
+    @Setup
+    public void setup() {
+        List<String> list = ColumnFixtures.names(ColumnFixtures.columns(columnCount, 7));
+        names = list.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void humanizeAll(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(StringUtils.humanize(name));
+        }
+    }
+}
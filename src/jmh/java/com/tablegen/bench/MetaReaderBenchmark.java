@@ -0,0 +1,82 @@
+package com.tablegen.bench;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.core.MetaReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metadata parsing against {@link FakeJdbc}: measures MetaReader's own work (SQL building,
+ * row mapping, query-mode alias and comment resolution) with no network or server time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetaReaderBenchmark {
+
+    private static final String SCHEMA = "shop";
+
+    @Param({"10", "500", "10000"})
+    public int columnCount;
+
+    private Connection connection;
+    private String firstTable;
+    private String userQuery;
+
+    @Setup
+    public void setup() {
+        // Tables of up to 50 columns, with the first table holding the single-table case
+        Map<String, List<ColumnMeta>> tables = ColumnFixtures.schema(columnCount, Math.min(columnCount, 50), 11);
+        firstTable = tables.keySet().iterator().next();
+
+        // A two-table join aliasing every column of the first table; result columns carry the aliases
+        List<ColumnMeta> first = tables.get(firstTable);
+        List<ColumnMeta> queryColumns = new ArrayList<>();
+        StringBuilder select = new StringBuilder("SELECT ");
+        for (int i = 0; i < first.size(); i++) {
+            ColumnMeta col = first.get(i);
+            String alias = "c" + i;
+            if (i > 0) select.append(", ");
+            select.append("a.").append(col.name()).append(" AS ").append(alias);
+            queryColumns.add(new ColumnMeta(alias, col.type(), col.isNullable(), false, "", i + 1));
+        }
+        String secondTable = tables.size() > 1 ? new ArrayList<>(tables.keySet()).get(1) : firstTable;
+        userQuery = select + " FROM " + firstTable + " a JOIN " + secondTable + " b ON a.user_id = b.user_id";
+
+        connection = FakeJdbc.connection("MariaDB", SCHEMA, tables, queryColumns);
+    }
+
+    @Benchmark
+    public List<ColumnMeta> getColumns() throws SQLException {
+        return new MetaReader(connection).getColumns(SCHEMA, firstTable);
+    }
+
+    @Benchmark
+    public Map<String, List<ColumnMeta>> getColumnsBySchema() throws SQLException {
+        return new MetaReader(connection).getColumnsBySchema(SCHEMA);
+    }
+
+    @Benchmark
+    public List<ColumnMeta> getColumnsFromQuery() throws SQLException {
+        return new MetaReader(connection).getColumnsFromQuery(userQuery, SCHEMA);
+    }
+}
@@ -0,0 +1,60 @@
+package com.tablegen.service;
+
+import com.tablegen.bench.ColumnFixtures;
+import com.tablegen.core.ColumnMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lives in the service package because {@link TableGenService#filterColumns} is package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterColumnsBenchmark {
+
+    @Param({"10", "500", "10000"})
+    public int columnCount;
+
+    private List<ColumnMeta> columns;
+    private Set<String> exclude;
+    private Set<String> only;
+
+    @Setup
+    public void setup() {
+        columns = ColumnFixtures.columns(columnCount, 3);
+        // Typical form input: drop audit columns, or keep every fourth column
+        exclude = Set.of("reg_date", "reg_id", "upd_date", "upd_id", "del_yn");
+        only = new HashSet<>();
+        for (int i = 0; i < columns.size(); i += 4) {
+            only.add(columns.get(i).name());
+        }
+    }
+
+    @Benchmark
+    public List<ColumnMeta> exclude() {
+        return TableGenService.filterColumns(columns, exclude, null);
+    }
+
+    @Benchmark
+    public List<ColumnMeta> only() {
+        return TableGenService.filterColumns(columns, null, only);
+    }
+}
@@ -44,6 +44,26 @@ public class ArgsParser {
                 builder.copyToClipboard(true);
                 continue;
             }
+            if ("refresh".equals(key)) {
+                builder.refreshMetadata(true);
+                continue;
+            }
+            if ("all-tables".equals(key)) {
+                builder.allTables(true);
+                continue;
+            }
+            if ("no-daemon".equals(key)) {
+                builder.noDaemon(true);
+                continue;
+            }
+            if ("watch".equals(key)) {
+                builder.watch(true);
+                continue;
+            }
+            if ("profile".equals(key)) {
+                builder.profile(true);
+                continue;
+            }
 
             if (i + 1 >= args.length) {
                 throw new IllegalArgumentException("Missing value for option: " + arg);
@@ -70,6 +90,10 @@ public class ArgsParser {
                 case "template":
                     builder.templateType(TemplateType.fromString(value));
                     break;
+                case "template-file":
+                    builder.templateFile(value);
+                    builder.templateType(TemplateType.FILE);
+                    break;
                 case "exclude":
                     builder.exclude(parseCsv(value));
                     break;
@@ -79,6 +103,18 @@ public class ArgsParser {
                 case "out":
                     builder.outFile(value);
                     break;
+                case "manifest":
+                    builder.manifestFile(value);
+                    break;
+                case "snapshot":
+                    builder.snapshotFile(value);
+                    break;
+                case "export-snapshot":
+                    builder.exportSnapshotFile(value);
+                    break;
+                case "interval":
+                    builder.watchIntervalSeconds(parseInterval(value));
+                    break;
                 default:
                     System.err.println("Warning: Unknown option ignored: " + key);
             }
@@ -104,13 +140,7 @@ public class ArgsParser {
                 Properties props = new Properties();
                 props.load(fis);
                 
-                if (props.containsKey("db.url")) builder.dbUrl(props.getProperty("db.url"));
-                if (props.containsKey("db.user")) builder.user(props.getProperty("db.user"));
-                if (props.containsKey("db.pass")) builder.password(props.getProperty("db.pass"));
-                if (props.containsKey("db.schema")) builder.schema(props.getProperty("db.schema"));
-                // We typically don't set 'table' in config as it changes often, but we can support it
-                if (props.containsKey("db.table")) builder.table(props.getProperty("db.table"));
-                if (props.containsKey("template")) builder.templateType(TemplateType.fromString(props.getProperty("template")));
+                applyProperties(props, "", builder);
 
             } catch (IOException e) {
                 System.err.println("Warning: Failed to load config file: " + e.getMessage());
@@ -118,7 +148,42 @@ public class ArgsParser {
         }
     }
 
-    private static Set<String> parseCsv(String value) {
+    /**
+     * Applies tablegen.properties style keys (optionally under a prefix such as "job.users.") to the builder.
+     * Shared with {@link Manifest} so manifests use the same vocabulary as the config file.
+     */
+    static void applyProperties(Properties props, String prefix, Config.Builder builder) {
+        if (props.containsKey(prefix + "db.url")) builder.dbUrl(props.getProperty(prefix + "db.url"));
+        if (props.containsKey(prefix + "db.user")) builder.user(props.getProperty(prefix + "db.user"));
+        if (props.containsKey(prefix + "db.pass")) builder.password(props.getProperty(prefix + "db.pass"));
+        if (props.containsKey(prefix + "db.schema")) builder.schema(props.getProperty(prefix + "db.schema"));
+        // We typically don't set 'table' in config as it changes often, but we can support it
+        if (props.containsKey(prefix + "db.table")) builder.table(props.getProperty(prefix + "db.table"));
+        if (props.containsKey(prefix + "table")) builder.table(props.getProperty(prefix + "table"));
+        if (props.containsKey(prefix + "template")) builder.templateType(TemplateType.fromString(props.getProperty(prefix + "template")));
+        if (props.containsKey(prefix + "template.file")) {
+            builder.templateFile(props.getProperty(prefix + "template.file"));
+            builder.templateType(TemplateType.FILE);
+        }
+        if (props.containsKey(prefix + "exclude")) builder.exclude(parseCsv(props.getProperty(prefix + "exclude")));
+        if (props.containsKey(prefix + "only")) builder.only(parseCsv(props.getProperty(prefix + "only")));
+        if (props.containsKey(prefix + "out")) builder.outFile(props.getProperty(prefix + "out"));
+        if (props.containsKey(prefix + "snapshot")) builder.snapshotFile(props.getProperty(prefix + "snapshot"));
+    }
+
+    private static int parseInterval(String value) {
+        try {
+            int seconds = Integer.parseInt(value.trim());
+            if (seconds > 0) {
+                return seconds;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IllegalArgumentException("--interval must be a positive number of seconds: " + value);
+    }
+
+    static Set<String> parseCsv(String value) {
         if (value == null || value.isBlank()) {
             return new HashSet<>();
         }
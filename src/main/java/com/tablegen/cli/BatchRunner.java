@@ -0,0 +1,154 @@
+package com.tablegen.cli;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.generator.TableGenerator;
+
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the jobs of a {@link Manifest} concurrently in this JVM.
+ *
+ * Jobs share one {@link GenerationPipeline} (connections, catalog cache) and a fixed-size executor.
+ * A per-database semaphore bounds how many jobs query the same server at once; generation and
+ * file writes happen outside it so they proceed in parallel.
+ */
+public class BatchRunner {
+
+    private final GenerationPipeline pipeline;
+
+    public BatchRunner(GenerationPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+     * @return true if every job succeeded
+     */
+    public boolean run(Manifest manifest) throws InterruptedException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(manifest.threads(), r -> {
+            Thread t = new Thread(r, "tablegen-batch-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Map<String, Semaphore> perDatabase = new ConcurrentHashMap<>();
+
+        long start = System.nanoTime();
+        List<Future<JobResult>> futures = new ArrayList<>();
+        for (Manifest.Job job : manifest.jobs()) {
+            // Snapshot jobs never touch a database; they share one permit group per snapshot file
+            String target = job.config().usesSnapshot() ? job.config().snapshotFile() : job.config().dbUrl();
+            Semaphore dbPermits = perDatabase.computeIfAbsent(target,
+                    url -> new Semaphore(manifest.perDatabaseThreads()));
+            futures.add(executor.submit(() -> runJob(job, dbPermits)));
+        }
+
+        List<JobResult> results = new ArrayList<>();
+        try {
+            for (Future<JobResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // runJob reports its own failures; this only happens on an unexpected Error
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        printSummary(results, wallMillis);
+        return results.stream().allMatch(JobResult::succeeded);
+    }
+
+    private JobResult runJob(Manifest.Job job, Semaphore dbPermits) {
+        Config config = job.config();
+        long waitMs = 0, readMs = 0, renderMs = 0;
+        int columnCount = 0;
+        try {
+            // 1. Read metadata, holding a per-database permit only for the DB round trip
+            long t0 = System.nanoTime();
+            dbPermits.acquire();
+            long t1 = System.nanoTime();
+            List<ColumnMeta> allColumns;
+            try {
+                allColumns = pipeline.readColumns(config);
+            } finally {
+                dbPermits.release();
+            }
+            long t2 = System.nanoTime();
+            waitMs = TimeUnit.NANOSECONDS.toMillis(t1 - t0);
+            readMs = TimeUnit.NANOSECONDS.toMillis(t2 - t1);
+
+            if (allColumns.isEmpty()) {
+                throw new IllegalStateException("No columns found for table " + config.schema() + "." + config.table());
+            }
+
+            // 2. Filter
+            List<ColumnMeta> filteredColumns = pipeline.filterColumns(allColumns, config);
+            columnCount = filteredColumns.size();
+            TableGenerator generator = pipeline.createGenerator(config);
+            Path path = outputPath(config);
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+
+            // 3. Generate straight into the output file
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                generator.generate(filteredColumns, writer);
+            }
+            renderMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t2);
+
+            return new JobResult(job.name(), config.table(), columnCount, waitMs, readMs, renderMs, path.toString(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new JobResult(job.name(), config.table(), columnCount, waitMs, readMs, renderMs, null, "interrupted");
+        } catch (Exception e) {
+            return new JobResult(job.name(), config.table(), columnCount, waitMs, readMs, renderMs, null, e.getMessage());
+        }
+    }
+
+    private static Path outputPath(Config config) {
+        String targetFile = config.outFile();
+        if (targetFile == null || targetFile.isBlank()) {
+            targetFile = config.table() + ".html";
+        }
+        return Paths.get(targetFile);
+    }
+
+    private static void printSummary(List<JobResult> results, long wallMillis) {
+        System.out.println("--- Batch Summary ---");
+        System.out.printf("%-20s %-24s %5s %8s %8s %10s  %s%n",
+                "JOB", "TABLE", "COLS", "WAIT ms", "READ ms", "RENDER ms", "RESULT");
+        int failed = 0;
+        for (JobResult r : results) {
+            String outcome = r.succeeded() ? r.output() : "FAILED: " + r.error();
+            if (!r.succeeded()) failed++;
+            System.out.printf("%-20s %-24s %5d %8d %8d %10d  %s%n",
+                    r.name(), r.table(), r.columns(), r.waitMs(), r.readMs(), r.renderMs(), outcome);
+        }
+        System.out.println(results.size() + " jobs, " + failed + " failed, " + wallMillis + " ms total");
+    }
+
+    private record JobResult(String name, String table, int columns,
+                             long waitMs, long readMs, long renderMs,
+                             String output, String error) {
+        boolean succeeded() {
+            return error == null;
+        }
+    }
+}
@@ -12,11 +12,30 @@ public record Config(
     String schema,
     String table,
     TemplateType templateType,
+    String templateFile,
     Set<String> exclude,
     Set<String> only,
     String outFile,
-    boolean copyToClipboard
+    boolean copyToClipboard,
+    boolean refreshMetadata,
+    boolean allTables,
+    String manifestFile,
+    boolean noDaemon,
+    String snapshotFile,
+    String exportSnapshotFile,
+    boolean watch,
+    int watchIntervalSeconds,
+    boolean profile
 ) {
+    public static final int DEFAULT_WATCH_INTERVAL_SECONDS = 5;
+
+    /**
+     * True when columns come from a metadata snapshot file instead of a database.
+     */
+    public boolean usesSnapshot() {
+        return snapshotFile != null && !snapshotFile.isBlank();
+    }
+
     public static class Builder {
         private String dbUrl;
         private String user;
@@ -24,10 +43,45 @@ public record Config(
         private String schema;
         private String table;
         private TemplateType templateType = TemplateType.HTML;
+        private String templateFile;
         private Set<String> exclude = new HashSet<>();
         private Set<String> only = new HashSet<>();
         private String outFile;
         private boolean copyToClipboard = false;
+        private boolean refreshMetadata = false;
+        private boolean allTables = false;
+        private String manifestFile;
+        private boolean noDaemon = false;
+        private String snapshotFile;
+        private String exportSnapshotFile;
+        private boolean watch = false;
+        private int watchIntervalSeconds = DEFAULT_WATCH_INTERVAL_SECONDS;
+        private boolean profile = false;
+
+        public Builder() {}
+
+        public Builder(Config config) {
+            dbUrl = config.dbUrl();
+            user = config.user();
+            password = config.password();
+            schema = config.schema();
+            table = config.table();
+            templateType = config.templateType();
+            templateFile = config.templateFile();
+            exclude = config.exclude();
+            only = config.only();
+            outFile = config.outFile();
+            copyToClipboard = config.copyToClipboard();
+            refreshMetadata = config.refreshMetadata();
+            allTables = config.allTables();
+            manifestFile = config.manifestFile();
+            noDaemon = config.noDaemon();
+            snapshotFile = config.snapshotFile();
+            exportSnapshotFile = config.exportSnapshotFile();
+            watch = config.watch();
+            watchIntervalSeconds = config.watchIntervalSeconds();
+            profile = config.profile();
+        }
 
         public Builder dbUrl(String val) { dbUrl = val; return this; }
         public Builder user(String val) { user = val; return this; }
@@ -35,13 +89,23 @@ public record Config(
         public Builder schema(String val) { schema = val; return this; }
         public Builder table(String val) { table = val; return this; }
         public Builder templateType(TemplateType val) { templateType = val; return this; }
+        public Builder templateFile(String val) { templateFile = val; return this; }
         public Builder exclude(Set<String> val) { exclude = val; return this; }
         public Builder only(Set<String> val) { only = val; return this; }
         public Builder outFile(String val) { outFile = val; return this; }
         public Builder copyToClipboard(boolean val) { copyToClipboard = val; return this; }
+        public Builder refreshMetadata(boolean val) { refreshMetadata = val; return this; }
+        public Builder allTables(boolean val) { allTables = val; return this; }
+        public Builder manifestFile(String val) { manifestFile = val; return this; }
+        public Builder noDaemon(boolean val) { noDaemon = val; return this; }
+        public Builder snapshotFile(String val) { snapshotFile = val; return this; }
+        public Builder exportSnapshotFile(String val) { exportSnapshotFile = val; return this; }
+        public Builder watch(boolean val) { watch = val; return this; }
+        public Builder watchIntervalSeconds(int val) { watchIntervalSeconds = val; return this; }
+        public Builder profile(boolean val) { profile = val; return this; }
 
         public Config build() {
-            return new Config(dbUrl, user, password, schema, table, templateType, exclude, only, outFile, copyToClipboard);
+            return new Config(dbUrl, user, password, schema, table, templateType, templateFile, exclude, only, outFile, copyToClipboard, refreshMetadata, allTables, manifestFile, noDaemon, snapshotFile, exportSnapshotFile, watch, watchIntervalSeconds, profile);
         }
     }
 }
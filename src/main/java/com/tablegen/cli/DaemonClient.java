@@ -0,0 +1,119 @@
+package com.tablegen.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Thin client side of daemon mode: forwards a {@link Config} to a running {@link DaemonServer}
+ * and writes the streamed documents locally through {@link LocalOutput}.
+ */
+public final class DaemonClient {
+
+    private DaemonClient() {}
+
+    /**
+     * @return false if no daemon is listening, in which case the caller runs in-process
+     */
+    public static boolean tryRun(Config config) throws IOException {
+        SocketChannel channel = connect(DaemonProtocol.socketPath());
+        if (channel == null) {
+            return false;
+        }
+
+        try (channel) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DaemonProtocol.write(out, DaemonProtocol.REQUEST, DaemonProtocol.encodeConfig(config));
+            out.flush();
+
+            LocalOutput output = new LocalOutput(config, System.out);
+            Writer document = null;
+            try {
+                while (true) {
+                    DaemonProtocol.Frame frame = DaemonProtocol.read(in);
+                    switch (frame.type()) {
+                        case DaemonProtocol.INFO -> output.info(frame.text());
+                        case DaemonProtocol.BEGIN -> document = output.openDocument(frame.text());
+                        case DaemonProtocol.DATA -> document.write(frame.text());
+                        case DaemonProtocol.END -> {
+                            document.close();
+                            document = null;
+                        }
+                        case DaemonProtocol.ERROR -> throw new IllegalStateException(frame.text());
+                        case DaemonProtocol.DONE -> {
+                            output.finish();
+                            return true;
+                        }
+                        default -> throw new IOException("Unexpected daemon frame: " + (char) frame.type());
+                    }
+                }
+            } finally {
+                // Still open only if the stream broke off (ERROR frame or lost connection) mid-document
+                if (document != null) {
+                    output.discard(document);
+                }
+            }
+        }
+    }
+
+    /**
+     * Asks a running daemon to shut down.
+     *
+     * @return false if no daemon was running
+     */
+    public static boolean stop() throws IOException {
+        SocketChannel channel = connect(DaemonProtocol.socketPath());
+        if (channel == null) {
+            return false;
+        }
+        try (channel) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            DaemonProtocol.write(out, DaemonProtocol.STOP, "");
+            out.flush();
+            DaemonProtocol.read(new DataInputStream(Channels.newInputStream(channel)));
+            return true;
+        }
+    }
+
+    static boolean isRunning(Path socketPath) {
+        SocketChannel channel = connect(socketPath);
+        if (channel == null) {
+            return false;
+        }
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Only probing
+        }
+        return true;
+    }
+
+    // Null when there is no socket file or nobody is listening on it (stale file after a crash)
+    private static SocketChannel connect(Path socketPath) {
+        if (!Files.exists(socketPath)) {
+            return null;
+        }
+        try {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socketPath));
+                return channel;
+            } catch (IOException e) {
+                channel.close();
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
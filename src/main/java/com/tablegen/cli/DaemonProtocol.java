@@ -0,0 +1,106 @@
+package com.tablegen.cli;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Wire format between the CLI client and {@link DaemonServer}: frames of one type byte, a 4-byte
+ * payload length and the payload (UTF-8 text). The client sends one REQUEST (or STOP); the daemon
+ * answers with INFO / BEGIN, DATA..., END / ERROR frames and a final DONE.
+ */
+final class DaemonProtocol {
+
+    static final byte REQUEST = 'Q';
+    static final byte STOP = 'S';
+    static final byte INFO = 'I';
+    static final byte BEGIN = 'B';
+    static final byte DATA = 'D';
+    static final byte END = 'N';
+    static final byte ERROR = 'E';
+    static final byte DONE = 'Z';
+
+    // Requests are a handful of properties and data frames are chunked, so anything larger is corrupt
+    private static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    record Frame(byte type, byte[] payload) {
+        String text() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    private DaemonProtocol() {}
+
+    static Path socketPath() {
+        return Paths.get(System.getProperty("user.home"), ".tablegen", "daemon.sock");
+    }
+
+    static void write(DataOutputStream out, byte type, String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(type);
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    static Frame read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid daemon frame length: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new Frame(type, payload);
+    }
+
+    /**
+     * Encodes a request using the tablegen.properties vocabulary. File paths are made absolute because
+     * the daemon does not share the client's working directory.
+     */
+    static String encodeConfig(Config config) throws IOException {
+        Properties props = new Properties();
+        putIfPresent(props, "db.url", config.dbUrl());
+        putIfPresent(props, "db.user", config.user());
+        putIfPresent(props, "db.pass", config.password());
+        putIfPresent(props, "db.schema", config.schema());
+        putIfPresent(props, "table", config.table());
+        putIfPresent(props, "template", config.templateType().name());
+        if (config.templateFile() != null && !config.templateFile().isBlank()) {
+            props.setProperty("template.file", Paths.get(config.templateFile()).toAbsolutePath().toString());
+        }
+        if (config.usesSnapshot()) {
+            props.setProperty("snapshot", Paths.get(config.snapshotFile()).toAbsolutePath().toString());
+        }
+        props.setProperty("exclude", String.join(",", config.exclude()));
+        props.setProperty("only", String.join(",", config.only()));
+        props.setProperty("refresh", String.valueOf(config.refreshMetadata()));
+        props.setProperty("all-tables", String.valueOf(config.allTables()));
+
+        StringWriter text = new StringWriter();
+        props.store(text, null);
+        return text.toString();
+    }
+
+    static Config decodeConfig(String text) throws IOException {
+        Properties props = new Properties();
+        props.load(new StringReader(text));
+
+        Config.Builder builder = new Config.Builder();
+        ArgsParser.applyProperties(props, "", builder);
+        builder.refreshMetadata(Boolean.parseBoolean(props.getProperty("refresh")));
+        builder.allTables(Boolean.parseBoolean(props.getProperty("all-tables")));
+        return builder.build();
+    }
+
+    private static void putIfPresent(Properties props, String key, String value) {
+        if (value != null) {
+            props.setProperty(key, value);
+        }
+    }
+}
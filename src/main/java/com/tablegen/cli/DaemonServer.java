@@ -0,0 +1,217 @@
+package com.tablegen.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-lived CLI process ("tablegen daemon") that keeps the JVM, JDBC drivers, pooled connections and
+ * the metadata cache warm. Clients connect over a Unix domain socket, send one {@link Config} and get
+ * the generated documents streamed back, so a warm run costs a socket round trip instead of a JVM start.
+ */
+public class DaemonServer implements AutoCloseable {
+
+    private final Path socketPath;
+    private final GenerationPipeline pipeline;
+    private final ExecutorService workers;
+    private ServerSocketChannel server;
+
+    public DaemonServer(GenerationPipeline pipeline) {
+        this(DaemonProtocol.socketPath(), pipeline);
+    }
+
+    DaemonServer(Path socketPath, GenerationPipeline pipeline) {
+        this.socketPath = socketPath;
+        this.pipeline = pipeline;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "tablegen-daemon-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Accepts clients until {@link #close()} is called or a client sends STOP.
+     */
+    public void serve() throws IOException {
+        // 1. Refuse to start twice; a socket file nobody listens on is left over from a crash
+        if (Files.exists(socketPath)) {
+            if (DaemonClient.isRunning(socketPath)) {
+                throw new IllegalStateException("Daemon already running on " + socketPath);
+            }
+            Files.delete(socketPath);
+        }
+        createPrivateDirectory(socketPath.getParent());
+
+        // 2. Bind; the socket carries DB passwords, so only the owner may connect. The directory is
+        // already owner-only, so nobody else can reach the socket before its own mode is set.
+        server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socketPath));
+        try {
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ignored) {
+            // Non-POSIX file system: the user's home directory permissions apply
+        }
+        System.out.println("tablegen daemon listening on " + socketPath);
+
+        // 3. One worker per client; the pipeline is shared and thread-safe
+        try {
+            while (true) {
+                SocketChannel client = server.accept();
+                workers.execute(() -> handle(client));
+            }
+        } catch (ClosedChannelException e) {
+            // close() was called
+        } finally {
+            close();
+        }
+    }
+
+    // rwx------ from the start, and tightened if an older run created it with the default mode
+    private static void createPrivateDirectory(Path dir) throws IOException {
+        try {
+            if (Files.isDirectory(dir)) {
+                Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwx------"));
+            } else {
+                Files.createDirectories(dir, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            }
+        } catch (UnsupportedOperationException e) {
+            // Non-POSIX file system: the user's home directory permissions apply
+            Files.createDirectories(dir);
+        }
+    }
+
+    private void handle(SocketChannel channel) {
+        try (channel) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+            DaemonProtocol.Frame request = DaemonProtocol.read(in);
+            if (request.type() == DaemonProtocol.STOP) {
+                DaemonProtocol.write(out, DaemonProtocol.DONE, "");
+                out.flush();
+                close();
+                return;
+            }
+
+            try {
+                Config config = DaemonProtocol.decodeConfig(request.text());
+                pipeline.generate(config, new FramedOutput(out));
+                DaemonProtocol.write(out, DaemonProtocol.DONE, "");
+            } catch (Exception e) {
+                DaemonProtocol.write(out, DaemonProtocol.ERROR, String.valueOf(e.getMessage()));
+            }
+            out.flush();
+        } catch (IOException e) {
+            // Client went away mid-request; nothing to report to
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (server != null) {
+                server.close();
+            }
+            Files.deleteIfExists(socketPath);
+        } catch (IOException ignored) {
+            // Best effort: a stale socket file is cleaned up by the next start
+        }
+        workers.shutdown();
+    }
+
+    /**
+     * Sink that forwards progress and documents to the client as frames.
+     */
+    private static final class FramedOutput implements OutputSink {
+        private final DataOutputStream out;
+
+        FramedOutput(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void info(String message) {
+            try {
+                DaemonProtocol.write(out, DaemonProtocol.INFO, message);
+            } catch (IOException e) {
+                throw new java.io.UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Writer openDocument(String name) throws IOException {
+            DaemonProtocol.write(out, DaemonProtocol.BEGIN, name);
+            return new FrameWriter(out);
+        }
+    }
+
+    // Buffers characters and sends them as DATA frames; END on close
+    private static final class FrameWriter extends Writer {
+        private static final int CHUNK = 8192;
+
+        private final DataOutputStream out;
+        private final StringBuilder buffer = new StringBuilder(CHUNK);
+
+        FrameWriter(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            buffer.append(cbuf, off, len);
+            if (buffer.length() >= CHUNK) {
+                sendChunk();
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            buffer.append(str, off, off + len);
+            if (buffer.length() >= CHUNK) {
+                sendChunk();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            sendChunk();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            sendChunk();
+            DaemonProtocol.write(out, DaemonProtocol.END, "");
+        }
+
+        private void sendChunk() throws IOException {
+            int end = buffer.length();
+            // Never split a surrogate pair across frames; each frame is decoded on its own
+            if (end > 0 && Character.isHighSurrogate(buffer.charAt(end - 1))) {
+                end--;
+            }
+            if (end == 0) {
+                return;
+            }
+            DaemonProtocol.write(out, DaemonProtocol.DATA, buffer.substring(0, end));
+            buffer.delete(0, end);
+        }
+    }
+}
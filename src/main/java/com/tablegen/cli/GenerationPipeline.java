@@ -0,0 +1,215 @@
+package com.tablegen.cli;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.core.ConnectionRegistry;
+import com.tablegen.core.MetaReader;
+import com.tablegen.core.MetadataCache;
+import com.tablegen.core.MetadataSnapshot;
+import com.tablegen.core.NameIndex;
+import com.tablegen.core.PhaseMetrics;
+import com.tablegen.core.SnapshotCache;
+import com.tablegen.core.TableRef;
+import com.tablegen.generator.HtmlGenerator;
+import com.tablegen.generator.MeteredGenerator;
+import com.tablegen.generator.MustacheGenerator;
+import com.tablegen.generator.TableGenerator;
+import com.tablegen.generator.TemplateFileGenerator;
+import com.tablegen.generator.ThymeleafGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The CLI's read-filter-generate steps, shared by single runs, --all-tables and manifest batches.
+ * One instance lives for the whole JVM so repeated generations reuse connections and catalog reads.
+ */
+public class GenerationPipeline implements AutoCloseable {
+
+    private final ConnectionRegistry connections = new ConnectionRegistry();
+    private final MetadataCache metadata = new MetadataCache();
+    private final SnapshotCache snapshots = new SnapshotCache();
+
+    /**
+     * Runs one CLI request end to end: a single table, or every table of the schema with --all-tables.
+     * Output goes to the sink, so the same code serves in-process runs and daemon clients.
+     */
+    public void generate(Config config, OutputSink out) throws SQLException, IOException {
+        TableGenerator generator = createGenerator(config);
+
+        if (config.allTables()) {
+            // One catalog query for the whole schema, one document per table
+            Map<String, List<ColumnMeta>> tables = readSchema(config);
+            if (tables.isEmpty()) {
+                throw new IllegalStateException("No tables found in schema " + config.schema());
+            }
+            out.info("Loaded " + tables.size() + " tables.");
+
+            for (Map.Entry<String, List<ColumnMeta>> entry : tables.entrySet()) {
+                try (Writer writer = out.openDocument(entry.getKey())) {
+                    generator.generate(filterColumns(entry.getValue(), config), writer);
+                }
+            }
+            return;
+        }
+
+        // 1. Read Metadata (connection borrowed from the registry unless the cache is fresh)
+        List<ColumnMeta> allColumns = readColumns(config);
+        if (allColumns.isEmpty()) {
+            throw new IllegalStateException(config.usesSnapshot()
+                    ? "No columns found for table " + config.table() + " in snapshot " + config.snapshotFile()
+                    : "No columns found for table " + config.schema() + "." + config.table());
+        }
+        out.info("Loaded " + allColumns.size() + " columns.");
+
+        // 2. Filter Columns
+        List<ColumnMeta> filteredColumns = filterColumns(allColumns, config);
+        out.info("Using " + filteredColumns.size() + " columns after filtering.");
+
+        // 3. Render straight into the sink
+        try (Writer writer = out.openDocument(config.table())) {
+            generator.generate(filteredColumns, writer);
+        }
+    }
+
+    public List<ColumnMeta> readColumns(Config config) throws SQLException, IOException {
+        if (config.usesSnapshot()) {
+            List<ColumnMeta> columns = snapshot(config).getColumns(TableRef.of(null, config.table()).table());
+            return columns != null ? columns : List.of();
+        }
+
+        TableRef ref = TableRef.of(config.schema(), config.table());
+        if (config.refreshMetadata()) {
+            metadata.invalidate(config.dbUrl(), ref.schema(), ref.table());
+        }
+
+        List<ColumnMeta> cached = metadata.getIfFresh(config.dbUrl(), login(config), ref);
+        if (cached != null) {
+            return cached;
+        }
+        try (Connection conn = connections.getConnection(config.dbUrl(), config.user(), config.password())) {
+            return metadata.getColumns(config.dbUrl(), login(config), ref, new MetaReader(conn));
+        }
+    }
+
+    /**
+     * Reads every table of the configured schema in one catalog query and seeds the metadata cache.
+     */
+    public Map<String, List<ColumnMeta>> readSchema(Config config) throws SQLException, IOException {
+        if (config.usesSnapshot()) {
+            return snapshot(config).getAll();
+        }
+
+        Map<String, List<ColumnMeta>> tables;
+        try (Connection conn = connections.getConnection(config.dbUrl(), config.user(), config.password())) {
+            tables = new MetaReader(conn).getColumnsBySchema(config.schema());
+        }
+        tables.forEach((table, columns) -> metadata.put(config.dbUrl(), login(config), new TableRef(config.schema(), table), columns));
+        return tables;
+    }
+
+    /**
+     * Table and column names of the configured schema (or snapshot) for prefix search. Reads the schema
+     * once through {@link #readSchema(Config)}, which also seeds the metadata cache for the chosen table.
+     */
+    public NameIndex nameIndex(Config config) throws SQLException, IOException {
+        return NameIndex.of(readSchema(config));
+    }
+
+    /**
+     * Change markers of every table in the configured schema, one query for the whole schema.
+     */
+    public Map<String, String> readChangeMarkers(Config config) throws SQLException {
+        try (Connection conn = connections.getConnection(config.dbUrl(), config.user(), config.password())) {
+            return new MetaReader(conn).getChangeMarkers(config.schema());
+        }
+    }
+
+    /**
+     * Reads just the given tables of the configured schema in one catalog query, bypassing and then
+     * refreshing the metadata cache.
+     */
+    public Map<String, List<ColumnMeta>> readTables(Config config, Collection<String> tables) throws SQLException {
+        Map<String, List<ColumnMeta>> result;
+        try (Connection conn = connections.getConnection(config.dbUrl(), config.user(), config.password())) {
+            result = new MetaReader(conn).getColumnsByTables(config.schema(), tables);
+        }
+        result.forEach((table, columns) -> metadata.put(config.dbUrl(), login(config), new TableRef(config.schema(), table), columns));
+        return result;
+    }
+
+    /**
+     * Reads the configured tables straight from the database and writes them to a snapshot file:
+     * the whole schema with --all-tables, otherwise the comma-separated --table list.
+     *
+     * @return number of tables exported
+     */
+    public int exportSnapshot(Config config) throws SQLException, IOException {
+        Map<String, List<ColumnMeta>> tables;
+        try (Connection conn = connections.getConnection(config.dbUrl(), config.user(), config.password())) {
+            MetaReader reader = new MetaReader(conn);
+            tables = config.allTables()
+                    ? reader.getColumnsBySchema(config.schema())
+                    : reader.getColumnsByTables(config.schema(), ArgsParser.parseCsv(config.table()));
+        }
+        if (tables.isEmpty()) {
+            throw new IllegalStateException("No tables found to export in schema " + config.schema());
+        }
+        MetadataSnapshot.write(Paths.get(config.exportSnapshotFile()), config.schema(),
+                MetadataSnapshot.describeSource(config.dbUrl()), tables);
+        return tables.size();
+    }
+
+    private MetadataSnapshot snapshot(Config config) throws IOException {
+        return snapshots.get(Paths.get(config.snapshotFile()));
+    }
+
+    private static String login(Config config) {
+        return MetadataCache.login(config.user(), config.password());
+    }
+
+    public List<ColumnMeta> filterColumns(List<ColumnMeta> columns, Config config) {
+        long start = System.nanoTime();
+        List<ColumnMeta> filtered = columns.stream()
+                .filter(col -> {
+                    // "only" takes precedence
+                    if (!config.only().isEmpty()) {
+                        return config.only().contains(col.name());
+                    }
+                    // otherwise check "exclude"
+                    if (config.exclude().contains(col.name())) {
+                        return false;
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+        PhaseMetrics.time(PhaseMetrics.FILTER, start);
+        return filtered;
+    }
+
+    public TableGenerator createGenerator(Config config) {
+        TableGenerator generator = switch (config.templateType()) {
+            case THYMELEAF -> new ThymeleafGenerator();
+            case MUSTACHE -> new MustacheGenerator();
+            case HTML -> new HtmlGenerator();
+            case FILE -> {
+                if (config.templateFile() == null || config.templateFile().isBlank()) {
+                    throw new IllegalArgumentException("Template type FILE requires --template-file");
+                }
+                yield new TemplateFileGenerator(Paths.get(config.templateFile()));
+            }
+        };
+        return new MeteredGenerator(config.templateType(), generator);
+    }
+
+    @Override
+    public void close() {
+        connections.close();
+    }
+}
@@ -1,59 +1,129 @@
 package com.tablegen.cli;
 
+import com.tablegen.core.NameIndex;
+
+import java.util.List;
 import java.util.Scanner;
 
 public class InteractivePrompter {
 
-    public static Config promptForMissingInfo(Config config) {
-        Config.Builder builder = new Config.Builder()
-                .dbUrl(config.dbUrl())
-                .user(config.user())
-                .password(config.password())
-                .schema(config.schema())
-                .table(config.table())
-                .templateType(config.templateType())
-                .exclude(config.exclude())
-                .only(config.only())
-                .outFile(config.outFile())
-                .copyToClipboard(config.copyToClipboard());
+    private static final int MAX_SUGGESTIONS = 20;
+
+    /**
+     * The table name is checked against the schema's names as it is entered:
+     * a unique prefix is completed, an ambiguous or unknown one lists the candidates.
+     */
+    public static Config promptForMissingInfo(Config config, GenerationPipeline pipeline) {
+        Config.Builder builder = new Config.Builder(config);
 
         Scanner scanner = new Scanner(System.in);
 
-        if (isBlank(config.dbUrl())) {
-            System.out.print("> Enter DB JDBC URL (e.g., jdbc:mariadb://localhost:3306/db): ");
-            String input = scanner.nextLine().trim();
-            if (!input.isEmpty()) builder.dbUrl(input);
-        }
+        // A snapshot replaces the database, so only the table is asked for
+        if (!config.usesSnapshot()) {
+            if (isBlank(config.dbUrl())) {
+                System.out.print("> Enter DB JDBC URL (e.g., jdbc:mariadb://localhost:3306/db): ");
+                String input = scanner.nextLine().trim();
+                if (!input.isEmpty()) builder.dbUrl(input);
+            }
 
-        if (isBlank(config.user())) {
-            System.out.print("> Enter DB User: ");
-            String input = scanner.nextLine().trim();
-            if (!input.isEmpty()) builder.user(input);
+            if (isBlank(config.user())) {
+                System.out.print("> Enter DB User: ");
+                String input = scanner.nextLine().trim();
+                if (!input.isEmpty()) builder.user(input);
+            }
+
+            // Password can be empty, but let's ask if user is also empty or just explicitly ask
+            if (config.password() == null) { 
+                 // Don't force password, but maybe user wants to input it? 
+                 // For simplicity, if not provided via args/config, we ask.
+                 // If user really has no password, they can just press enter.
+                 System.out.print("> Enter DB Password (leave empty if none): ");
+                 String input = scanner.nextLine().trim();
+                 builder.password(input);
+            }
+
+            if (isBlank(config.schema())) {
+                System.out.print("> Enter Schema Name: ");
+                String input = scanner.nextLine().trim();
+                if (!input.isEmpty()) builder.schema(input);
+            }
         }
 
-        // Password can be empty, but let's ask if user is also empty or just explicitly ask
-        if (config.password() == null) { 
-             // Don't force password, but maybe user wants to input it? 
-             // For simplicity, if not provided via args/config, we ask.
-             // If user really has no password, they can just press enter.
-             System.out.print("> Enter DB Password (leave empty if none): ");
-             String input = scanner.nextLine().trim();
-             builder.password(input);
+        if (isBlank(config.table()) && !config.allTables()) {
+            NameIndex names = loadNames(pipeline, builder.build());
+            String input = names != null ? promptTable(scanner, names) : promptPlain(scanner);
+            if (!input.isEmpty()) builder.table(input);
         }
 
-        if (isBlank(config.schema())) {
-            System.out.print("> Enter Schema Name: ");
+        return builder.build();
+    }
+
+    private static String promptPlain(Scanner scanner) {
+        System.out.print("> Enter Table Name: ");
+        return scanner.nextLine().trim();
+    }
+
+    // Loops until the name is a known table, or the same unknown name is entered twice (e.g. a view)
+    private static String promptTable(Scanner scanner, NameIndex names) {
+        String previous = null;
+        while (true) {
+            System.out.print("> Enter Table Name (prefix + '?' lists matches): ");
             String input = scanner.nextLine().trim();
-            if (!input.isEmpty()) builder.schema(input);
+            if (input.isEmpty() || input.contains(".")) {
+                return input; // Qualified names may point to another schema than the indexed one
+            }
+            if (input.endsWith("?")) {
+                printMatches(names.tables(input.substring(0, input.length() - 1), MAX_SUGGESTIONS));
+                continue;
+            }
+
+            String exact = names.table(input);
+            if (exact != null) {
+                return exact;
+            }
+            List<String> matches = names.tables(input, MAX_SUGGESTIONS);
+            if (matches.size() == 1) {
+                System.out.println("  Using " + matches.get(0));
+                return matches.get(0);
+            }
+            if (input.equals(previous)) {
+                return input;
+            }
+            if (matches.isEmpty()) {
+                System.out.println("  No table starts with '" + input + "'. Enter it again to use it anyway.");
+            } else {
+                printMatches(matches);
+            }
+            previous = input;
         }
+    }
 
-        if (isBlank(config.table())) {
-            System.out.print("> Enter Table Name: ");
-            String input = scanner.nextLine().trim();
-            if (!input.isEmpty()) builder.table(input);
+    private static void printMatches(List<String> matches) {
+        if (matches.isEmpty()) {
+            System.out.println("  No matching tables.");
+            return;
+        }
+        for (String table : matches) {
+            System.out.println("  " + table);
         }
+        if (matches.size() == MAX_SUGGESTIONS) {
+            System.out.println("  ... (type more of the name to narrow it down)");
+        }
+    }
 
-        return builder.build();
+    // Suggestions are optional: without schema or reachable database the plain prompt is used
+    private static NameIndex loadNames(GenerationPipeline pipeline, Config config) {
+        if (!config.usesSnapshot() && (isBlank(config.dbUrl()) || isBlank(config.user()) || isBlank(config.schema()))) {
+            return null;
+        }
+        try {
+            NameIndex names = pipeline.nameIndex(config);
+            System.out.println("  (" + names.tableCount() + " tables loaded for completion)");
+            return names.tableCount() > 0 ? names : null;
+        } catch (Exception e) {
+            System.out.println("  (Table list unavailable: " + e.getMessage() + ")");
+            return null;
+        }
     }
 
     private static boolean isBlank(String s) {
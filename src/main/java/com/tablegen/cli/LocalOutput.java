@@ -0,0 +1,137 @@
+package com.tablegen.cli;
+
+import java.awt.Toolkit;
+import java.awt.datatransfer.StringSelection;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Writes generated documents where the CLI options say: one file per table (--all-tables treats --out
+ * as a directory), otherwise --out or "table.html", plus the clipboard for --copy.
+ * Paths resolve against this process's working directory, so the daemon client uses it as well.
+ */
+public class LocalOutput implements OutputSink {
+
+    private final Config config;
+    private final PrintStream console;
+    private int documents;
+
+    public LocalOutput(Config config, PrintStream console) {
+        this.config = config;
+        this.console = console;
+    }
+
+    @Override
+    public void info(String message) {
+        console.println(message);
+    }
+
+    @Override
+    public Writer openDocument(String name) throws IOException {
+        documents++;
+        Path path = documentPath(config, name);
+        if (config.allTables()) {
+            Files.createDirectories(path.getParent());
+        }
+        return new DocumentWriter(path);
+    }
+
+    /**
+     * Closes a document that could not be completed (e.g. the daemon reported an error mid-stream)
+     * and deletes its partial file instead of reporting it as saved.
+     */
+    public void discard(Writer document) throws IOException {
+        if (document instanceof DocumentWriter partial) {
+            partial.discard();
+        } else {
+            document.close();
+        }
+    }
+
+    /**
+     * The file a table's document is written to: inside the --out directory with --all-tables,
+     * otherwise --out itself, or "table.html" when no output file is specified.
+     */
+    static Path documentPath(Config config, String name) {
+        if (config.allTables()) {
+            return outputDirectory(config).resolve(name + ".html");
+        }
+        String targetFile = config.outFile();
+        if (targetFile == null || targetFile.isBlank()) {
+            targetFile = name + ".html";
+        }
+        return Paths.get(targetFile);
+    }
+
+    /**
+     * Prints the summary line of an --all-tables run; single documents report themselves on close.
+     */
+    public void finish() {
+        if (config.allTables()) {
+            console.println("Saved " + documents + " files to " + outputDirectory(config).toAbsolutePath());
+        }
+    }
+
+    private static Path outputDirectory(Config config) {
+        return Paths.get(config.outFile() == null || config.outFile().isBlank() ? "." : config.outFile());
+    }
+
+    // Streams to the file and, for a single document with --copy, keeps a copy for the clipboard
+    private final class DocumentWriter extends Writer {
+        private final Path path;
+        private final Writer file;
+        private final StringBuilder clipboard;
+
+        DocumentWriter(Path path) throws IOException {
+            this.path = path;
+            this.file = Files.newBufferedWriter(path);
+            this.clipboard = config.copyToClipboard() && !config.allTables() ? new StringBuilder() : null;
+        }
+
+        void discard() throws IOException {
+            file.close();
+            Files.deleteIfExists(path);
+            console.println("Discarded incomplete " + path.toAbsolutePath());
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            file.write(cbuf, off, len);
+            if (clipboard != null) clipboard.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            file.write(str, off, len);
+            if (clipboard != null) clipboard.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            file.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+            if (config.allTables()) {
+                return; // Reported once for all files by finish()
+            }
+            console.println("Saved to " + path.toAbsolutePath());
+
+            if (clipboard != null) {
+                try {
+                    StringSelection selection = new StringSelection(clipboard.toString());
+                    Toolkit.getDefaultToolkit().getSystemClipboard().setContents(selection, selection);
+                    console.println("Output copied to clipboard!");
+                } catch (java.awt.HeadlessException e) {
+                    System.err.println("Warning: Cannot copy to clipboard (Headless environment).");
+                }
+            }
+        }
+    }
+}
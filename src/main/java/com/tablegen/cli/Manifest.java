@@ -0,0 +1,92 @@
+package com.tablegen.cli;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * A batch of generation jobs read from a properties file.
+ *
+ * Top-level keys use the tablegen.properties vocabulary and act as defaults for every job;
+ * each job overrides them under "job.&lt;name&gt;.":
+ * <pre>
+ * db.url=jdbc:mariadb://localhost:3306/shop
+ * db.user=root
+ * db.schema=shop
+ * threads=8
+ * per-db-threads=2
+ *
+ * job.users.table=users
+ * job.users.template=THYMELEAF
+ * job.orders.table=orders
+ * job.orders.exclude=reg_dt,upt_dt
+ * job.orders.out=out/orders.html
+ * </pre>
+ * Jobs run in the order given by "jobs=users,orders", or by name if that key is absent.
+ */
+public record Manifest(List<Job> jobs, int threads, int perDatabaseThreads) {
+
+    public record Job(String name, Config config) {}
+
+    private static final String JOB_PREFIX = "job.";
+
+    public static Manifest load(Path path, Config defaults) throws IOException {
+        Properties props = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            props.load(reader);
+        }
+
+        // Manifest-level defaults on top of CLI / tablegen.properties values
+        Config.Builder base = new Config.Builder(defaults);
+        ArgsParser.applyProperties(props, "", base);
+        Config baseConfig = base.build();
+
+        List<Job> jobs = new ArrayList<>();
+        for (String name : jobNames(props)) {
+            Config.Builder builder = new Config.Builder(baseConfig);
+            ArgsParser.applyProperties(props, JOB_PREFIX + name + ".", builder);
+            Config config = builder.build();
+            if (config.table() == null || config.table().isBlank()) {
+                throw new IllegalArgumentException("Manifest job '" + name + "' has no table");
+            }
+            jobs.add(new Job(name, config));
+        }
+        if (jobs.isEmpty()) {
+            throw new IllegalArgumentException("Manifest defines no jobs: " + path);
+        }
+
+        int threads = Integer.parseInt(props.getProperty("threads", String.valueOf(Runtime.getRuntime().availableProcessors())).trim());
+        int perDatabaseThreads = Integer.parseInt(props.getProperty("per-db-threads", "2").trim());
+        if (threads < 1 || perDatabaseThreads < 1) {
+            throw new IllegalArgumentException("threads and per-db-threads must be positive");
+        }
+        return new Manifest(jobs, threads, perDatabaseThreads);
+    }
+
+    private static List<String> jobNames(Properties props) {
+        String order = props.getProperty("jobs");
+        if (order != null && !order.isBlank()) {
+            return Arrays.stream(order.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .toList();
+        }
+        TreeSet<String> names = new TreeSet<>();
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(JOB_PREFIX)) {
+                int dot = key.indexOf('.', JOB_PREFIX.length());
+                if (dot > JOB_PREFIX.length()) {
+                    names.add(key.substring(JOB_PREFIX.length(), dot));
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+}
@@ -0,0 +1,18 @@
+package com.tablegen.cli;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Where a generation run sends its progress lines and rendered documents.
+ * {@link LocalOutput} writes them to disk; the daemon forwards them to the client that asked.
+ */
+public interface OutputSink {
+
+    void info(String message);
+
+    /**
+     * Opens the writer for one generated document (one table). The caller closes it.
+     */
+    Writer openDocument(String name) throws IOException;
+}
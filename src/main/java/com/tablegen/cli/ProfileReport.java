@@ -0,0 +1,77 @@
+package com.tablegen.cli;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * --profile: collects the phase meters of {@link com.tablegen.core.PhaseMetrics} for this run and
+ * prints where the time went, slowest phase first.
+ */
+public final class ProfileReport {
+
+    private static final String PREFIX = "tablegen.";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ProfileReport() {}
+
+    /**
+     * Starts recording. Meters only exist in this JVM, so a profiled run must not go to the daemon.
+     */
+    public static ProfileReport start() {
+        ProfileReport report = new ProfileReport();
+        Metrics.addRegistry(report.registry);
+        return report;
+    }
+
+    public void print(PrintStream out) {
+        List<Timer> timers = registry.getMeters().stream()
+                .filter(m -> m instanceof Timer && m.getId().getName().startsWith(PREFIX))
+                .map(m -> (Timer) m)
+                .sorted(Comparator.comparingDouble((Timer t) -> t.totalTime(TimeUnit.NANOSECONDS)).reversed())
+                .toList();
+        List<DistributionSummary> summaries = registry.getMeters().stream()
+                .filter(m -> m instanceof DistributionSummary && m.getId().getName().startsWith(PREFIX))
+                .map(m -> (DistributionSummary) m)
+                .sorted(Comparator.comparing((DistributionSummary s) -> s.getId().getName()).thenComparing(s -> tags(s)))
+                .toList();
+
+        out.println("--- Profile ---");
+        if (timers.isEmpty()) {
+            out.println("No phases recorded.");
+            return;
+        }
+        out.println(String.format(Locale.ROOT, "%-20s %-34s %7s %11s %10s %10s",
+                "phase", "tags", "count", "total ms", "mean ms", "max ms"));
+        for (Timer timer : timers) {
+            out.println(String.format(Locale.ROOT, "%-20s %-34s %7d %11.1f %10.2f %10.2f",
+                    phase(timer), tags(timer), timer.count(),
+                    timer.totalTime(TimeUnit.MILLISECONDS), timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS)));
+        }
+        for (DistributionSummary summary : summaries) {
+            out.println(String.format(Locale.ROOT, "%-20s %-34s %7d %11.0f %10.1f %10.0f  (%s)",
+                    phase(summary), tags(summary), summary.count(),
+                    summary.totalAmount(), summary.mean(), summary.max(), summary.getId().getBaseUnit()));
+        }
+    }
+
+    private static String phase(Meter meter) {
+        return meter.getId().getName().substring(PREFIX.length());
+    }
+
+    private static String tags(Meter meter) {
+        return meter.getId().getTags().stream()
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,175 @@
+package com.tablegen.cli;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.generator.TableGenerator;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps generated documents in step with the database for --watch.
+ *
+ * Each round costs one query for the change markers of the whole schema. Only tables whose marker
+ * moved have their columns read (one catalog query for all of them), and only tables whose columns
+ * actually differ are rendered again. A rendered document is written only when its SHA-256 differs
+ * from the file already on disk, so unchanged outputs keep their mtime and build tools see no churn.
+ */
+public class WatchRunner {
+
+    private final GenerationPipeline pipeline;
+    private final PrintStream console;
+
+    // Last seen state per table; a table is only marked done once its document is up to date
+    private final Map<String, String> markers = new HashMap<>();
+    private final Map<String, List<ColumnMeta>> columns = new HashMap<>();
+    // Digests of files on disk, valid while their size and mtime are unchanged
+    private final Map<Path, FileDigest> digests = new HashMap<>();
+
+    public WatchRunner(GenerationPipeline pipeline, PrintStream console) {
+        this.pipeline = pipeline;
+        this.console = console;
+    }
+
+    /**
+     * Polls until the process is stopped. Failures of the first round (bad credentials, unknown table)
+     * are thrown; later ones are reported and retried on the next round.
+     */
+    public void run(Config config) throws SQLException, IOException, InterruptedException {
+        String target = config.allTables() ? "schema " + config.schema() : config.schema() + "." + config.table();
+        console.println("Watching " + target + " every " + config.watchIntervalSeconds() + "s (Ctrl+C to stop)");
+
+        poll(config);
+        while (true) {
+            TimeUnit.SECONDS.sleep(config.watchIntervalSeconds());
+            try {
+                poll(config);
+            } catch (SQLException | IOException | RuntimeException e) {
+                console.println("Warning: " + e.getMessage() + " (retrying in " + config.watchIntervalSeconds() + "s)");
+            }
+        }
+    }
+
+    /**
+     * One watch round.
+     *
+     * @return number of files written
+     */
+    public int poll(Config config) throws SQLException, IOException {
+        // 1. One query for the markers of every table in the schema
+        Map<String, String> current = watchedTables(pipeline.readChangeMarkers(config), config);
+        markers.keySet().retainAll(current.keySet());
+        columns.keySet().retainAll(current.keySet());
+
+        // 2. Columns only for tables whose marker moved (every table on the first round)
+        List<String> moved = new ArrayList<>();
+        current.forEach((table, marker) -> {
+            if (!markers.containsKey(table) || !Objects.equals(markers.get(table), marker)) {
+                moved.add(table);
+            }
+        });
+        if (moved.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<ColumnMeta>> read = pipeline.readTables(config, moved);
+
+        // 3. Render tables whose columns changed; write only documents whose bytes changed
+        TableGenerator generator = pipeline.createGenerator(config);
+        int rendered = 0, written = 0;
+        for (String table : moved) {
+            List<ColumnMeta> tableColumns = read.get(table);
+            if (tableColumns != null && !tableColumns.equals(columns.get(table))) {
+                StringWriter out = new StringWriter();
+                generator.generate(pipeline.filterColumns(tableColumns, config), out);
+                rendered++;
+
+                Path path = LocalOutput.documentPath(config, config.allTables() ? table : config.table());
+                if (writeIfChanged(path, out.toString().getBytes(StandardCharsets.UTF_8))) {
+                    written++;
+                    console.println("Updated " + path.toAbsolutePath());
+                }
+                columns.put(table, tableColumns);
+            }
+            markers.put(table, current.get(table));
+        }
+        console.println(moved.size() + " changed marker(s), " + rendered + " rendered, " + written + " written.");
+        return written;
+    }
+
+    private static Map<String, String> watchedTables(Map<String, String> markers, Config config) {
+        if (config.allTables()) {
+            return markers;
+        }
+        // Catalogs may store the name in another case than it was typed
+        Map<String, String> watched = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : markers.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(config.table())) {
+                watched.put(entry.getKey(), entry.getValue());
+                return watched;
+            }
+        }
+        throw new IllegalStateException("No table " + config.table() + " in schema " + config.schema());
+    }
+
+    /**
+     * @return false when the file already holds exactly these bytes
+     */
+    private boolean writeIfChanged(Path path, byte[] content) throws IOException {
+        byte[] digest = sha256(content);
+        if (Arrays.equals(digest, diskDigest(path, content.length))) {
+            return false;
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(path, content);
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        digests.put(path, new FileDigest(attrs.size(), attrs.lastModifiedTime().toMillis(), digest));
+        return true;
+    }
+
+    // Digest of the file on disk, or null if it is missing or cannot match a document of expectedSize
+    private byte[] diskDigest(Path path, long expectedSize) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        if (attrs.size() != expectedSize) {
+            return null;
+        }
+        long mtime = attrs.lastModifiedTime().toMillis();
+        FileDigest cached = digests.get(path);
+        if (cached != null && cached.size() == attrs.size() && cached.modifiedMillis() == mtime) {
+            return cached.digest();
+        }
+        byte[] digest = sha256(Files.readAllBytes(path));
+        digests.put(path, new FileDigest(attrs.size(), mtime, digest));
+        return digest;
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // mandatory in every JRE
+        }
+    }
+
+    private record FileDigest(long size, long modifiedMillis, byte[] digest) {}
+}
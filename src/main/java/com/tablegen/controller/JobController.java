@@ -0,0 +1,80 @@
+package com.tablegen.controller;
+
+import com.tablegen.dto.BatchGenerateRequest;
+import com.tablegen.dto.JobStatus;
+import com.tablegen.service.GenerationJob;
+import com.tablegen.service.JobService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Asynchronous generation: submit returns a job id at once, progress arrives over Server-Sent Events
+ * and the ZIP is downloaded when the job is done.
+ */
+@RestController
+@RequestMapping("/api/jobs")
+public class JobController {
+
+    private final JobService jobService;
+
+    public JobController(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * Same body as /api/generate/batch; without tables the whole schema is generated.
+     */
+    @PostMapping
+    public ResponseEntity<?> submit(@RequestBody BatchGenerateRequest request) {
+        try {
+            GenerationJob job = jobService.submit(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/jobs/" + job.id()))
+                    .body(job.status());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body("Too many generation jobs queued; try again later");
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<JobStatus> status(@PathVariable String id) {
+        GenerationJob job = jobService.get(id);
+        return job != null ? ResponseEntity.ok(job.status()) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable String id) {
+        GenerationJob job = jobService.get(id);
+        return job != null ? ResponseEntity.ok(jobService.subscribe(job)) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * The ZIP of a succeeded job; 409 while it is still running or when it failed.
+     */
+    @GetMapping("/{id}/result")
+    public ResponseEntity<?> result(@PathVariable String id) {
+        GenerationJob job = jobService.get(id);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] zip = job.result();
+        if (zip == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(job.status());
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tablegen-" + id + ".zip\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(zip);
+    }
+}
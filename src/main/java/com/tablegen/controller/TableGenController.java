@@ -1,44 +1,317 @@
 package com.tablegen.controller;
 
+import com.tablegen.core.Deadline;
+import com.tablegen.core.TableRef;
+import com.tablegen.dto.BatchGenerateRequest;
+import com.tablegen.dto.CacheInvalidateRequest;
+import com.tablegen.dto.ColumnsResponse;
 import com.tablegen.dto.GenerateRequest;
 import com.tablegen.dto.GenerateResponse;
+import com.tablegen.dto.RenderRequest;
+import com.tablegen.service.ArtifactCache;
+import com.tablegen.service.BulkheadFullException;
+import com.tablegen.service.SingleFlight;
 import com.tablegen.service.TableGenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api")
 public class TableGenController {
 
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final String GZIP_ETAG_SUFFIX = "-gz";
+
     private final TableGenService tableGenService;
 
     public TableGenController(TableGenService tableGenService) {
         this.tableGenService = tableGenService;
     }
 
+    // Declared as StreamingResponseBody so Spring streams it; fixed byte bodies are wrapped with bytes()
     @PostMapping("/generate")
-    public ResponseEntity<byte[]> generate(@RequestBody GenerateRequest request) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> generate(@RequestBody GenerateRequest request,
+                                      HttpServletRequest httpRequest,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Metadata is read off the servlet thread so DB errors still map to a proper status code;
+        // rendering is streamed to the socket afterwards without a String/byte[] copy.
+        Deadline deadline = deadline(httpRequest);
+        return tableGenService.offload(() -> tableGenService.generate(request, deadline))
+                .thenApply(response -> respond(response, ifNoneMatch, acceptEncoding))
+                .exceptionally(TableGenController::streamingFailure);
+    }
+
+    /**
+     * The unfiltered columns of a table or query as JSON, read once so the page can toggle columns and
+     * switch templates through /api/render without going back to the database. Same request body as
+     * /api/generate; exclude, only and the template are ignored. Cached columns are only served to the
+     * login that read them, so the metadata never reaches a request that could not read it itself.
+     */
+    @PostMapping("/columns")
+    public CompletableFuture<ResponseEntity<?>> columns(@RequestBody GenerateRequest request,
+                                      HttpServletRequest httpRequest,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Deadline deadline = deadline(httpRequest);
+        return tableGenService.offload(() -> tableGenService.readColumns(request, deadline))
+                .<ResponseEntity<?>>thenApply(columns -> {
+                    String fingerprint = ArtifactCache.fingerprint("columns", columns);
+                    String etag = "\"" + fingerprint + "\"";
+                    if (matchesETag(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    String tableName = request.getTable() != null && !request.getTable().isBlank()
+                            ? request.getTable() : "custom_query_result";
+                    return ResponseEntity.ok()
+                            .eTag(etag)
+                            .cacheControl(CacheControl.noCache().cachePrivate())
+                            .body(new ColumnsResponse(tableName, fingerprint, columns));
+                })
+                .exceptionally(TableGenController::failure);
+    }
+
+    /**
+     * Renders columns sent by the client (from /api/columns) with the requested filter and template.
+     * Needs no database, so it runs on the servlet thread.
+     */
+    @PostMapping("/render")
+    public ResponseEntity<StreamingResponseBody> render(@RequestBody RenderRequest request,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            GenerateResponse response = tableGenService.generate(request);
-            byte[] content = response.getGeneratedCode().getBytes(StandardCharsets.UTF_8);
+            return respond(tableGenService.render(request), ifNoneMatch, acceptEncoding);
+        } catch (Exception e) {
+            return streamingFailure(e);
+        }
+    }
 
-            String filename = response.getTableName() + ".html";
+    private ResponseEntity<StreamingResponseBody> respond(GenerateResponse response, String ifNoneMatch, String acceptEncoding) {
+        // The fingerprint covers the template and the filtered columns, so it identifies the exact bytes.
+        // The gzip representation is different bytes and gets its own strong validator (RFC 9110 8.8.3).
+        ArtifactCache.Artifact cached = tableGenService.cachedArtifact(response);
+        boolean gzip = cached != null && acceptsGzip(acceptEncoding);
+        String etag = "\"" + response.getFingerprint() + "\"";
+        String gzipETag = "\"" + response.getFingerprint() + GZIP_ETAG_SUFFIX + "\"";
+        String selected = gzip ? gzipETag : etag;
+        // Either validator proves the client has this content; answer with the one of the representation it would get
+        if (matchesETag(ifNoneMatch, etag) || matchesETag(ifNoneMatch, gzipETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(selected).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.TEXT_HTML)
-                    .contentLength(content.length)
-                    .body(content);
+        String filename = response.getTableName() + ".html";
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .eTag(selected)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
 
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body(e.getMessage().getBytes(StandardCharsets.UTF_8));
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.internalServerError().body(("Error: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        // Repeat requests are answered from the artifact cache without generating or encoding
+        if (cached != null) {
+            if (gzip) {
+                return ok.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(bytes(cached.gzip()));
+            }
+            return ok.body(bytes(cached.body()));
         }
+
+        StreamingResponseBody body = out -> tableGenService.writeTo(response, out);
+        return ok.body(body);
+    }
+
+    /**
+     * A deadline for the request's database work. It is cancelled, stopping the running statement, when
+     * the async request times out or fails (a client disconnect, once the container notices it), and
+     * closed once the request completes. Past the deadline the statement is cancelled regardless.
+     */
+    private Deadline deadline(HttpServletRequest httpRequest) {
+        Deadline deadline = tableGenService.newDeadline();
+        WebAsyncUtils.getAsyncManager(httpRequest).registerDeferredResultInterceptor(Deadline.class.getName(),
+                new DeferredResultProcessingInterceptor() {
+                    @Override
+                    public <T> boolean handleTimeout(NativeWebRequest request, DeferredResult<T> result) {
+                        deadline.cancel("request timed out");
+                        return true;
+                    }
+
+                    @Override
+                    public <T> boolean handleError(NativeWebRequest request, DeferredResult<T> result, Throwable t) {
+                        deadline.cancel("client disconnected");
+                        return true;
+                    }
+
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, DeferredResult<T> result) {
+                        deadline.close();
+                    }
+                });
+        return deadline;
+    }
+
+    /**
+     * Maps a failure of the offloaded work: bad input 400, a busy database 503 with Retry-After,
+     * database work past its deadline 504, anything else 500.
+     */
+    private static ResponseEntity<byte[]> failure(Throwable error) {
+        Throwable e = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (e instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().contentType(TEXT_UTF8).body(e.getMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        if (e instanceof BulkheadFullException busy) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(busy.getRetryAfterSeconds()))
+                    .contentType(TEXT_UTF8)
+                    .body(e.getMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        if (e instanceof SQLTimeoutException) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).contentType(TEXT_UTF8).body(e.getMessage().getBytes(StandardCharsets.UTF_8));
+        }
+        e.printStackTrace();
+        return ResponseEntity.internalServerError().contentType(TEXT_UTF8).body(("Error: " + e.getMessage()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> streamingFailure(Throwable error) {
+        ResponseEntity<byte[]> failure = failure(error);
+        return ResponseEntity.status(failure.getStatusCode()).headers(failure.getHeaders()).body(bytes(failure.getBody()));
+    }
+
+    private static StreamingResponseBody bytes(byte[] content) {
+        return out -> out.write(content);
+    }
+
+    // If-None-Match uses the weak comparison: "W/" prefixes are ignored, "*" matches anything
+    static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Generates every table of the request's schema into a ZIP streamed as each entry is rendered,
+     * like /generate/batch. The table field is ignored.
+     */
+    @PostMapping("/generate/all")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> generateAll(@RequestBody GenerateRequest request,
+                                                                               HttpServletRequest httpRequest) {
+        Deadline deadline = deadline(httpRequest);
+        return tableGenService.offload(() -> tableGenService.generateAll(request, deadline))
+                .thenApply(responses -> zip(request.getSchema(), responses))
+                .exceptionally(TableGenController::streamingFailure);
+    }
+
+    /**
+     * Generates several tables of one schema into a ZIP streamed as each entry is rendered.
+     * All metadata is read up front with one connection and one catalog query.
+     */
+    @PostMapping("/generate/batch")
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> generateBatch(@RequestBody BatchGenerateRequest request,
+                                                                                 HttpServletRequest httpRequest) {
+        Deadline deadline = deadline(httpRequest);
+        return tableGenService.offload(() -> tableGenService.prepareBatch(request, deadline))
+                .thenApply(responses -> zip(request.getSchema(), responses))
+                .exceptionally(TableGenController::streamingFailure);
+    }
+
+    private ResponseEntity<StreamingResponseBody> zip(String schema, List<GenerateResponse> responses) {
+        String name = schema != null && !schema.isBlank() ? schema : "tablegen";
+        StreamingResponseBody body = out -> tableGenService.writeZip(responses, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".zip\"")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+
+    /**
+     * Table and column names starting with the prefix, for autocomplete. The body names the database
+     * (dbUrl, user, password, schema) or a snapshot as for /api/generate, so credentials stay out of the URL.
+     * A "schema.prefix" searches that schema. Answered from an in-memory index once the schema is loaded.
+     */
+    @PostMapping("/tables")
+    public CompletableFuture<ResponseEntity<?>> searchNames(@RequestBody GenerateRequest request,
+                                      @RequestParam(defaultValue = "") String prefix,
+                                      @RequestParam(defaultValue = "20") int limit,
+                                      HttpServletRequest httpRequest) {
+        TableRef ref = TableRef.of(request.getSchema(), prefix);
+        request.setSchema(ref.schema());
+        int max = Math.max(1, Math.min(limit, 200));
+        Deadline deadline = deadline(httpRequest);
+        return tableGenService.offload(() -> tableGenService.nameIndex(request, deadline))
+                .<ResponseEntity<?>>thenApply(index -> {
+                    Map<String, Object> body = new LinkedHashMap<>();
+                    body.put("tables", index.tables(ref.table(), max));
+                    body.put("columns", index.columns(ref.table(), max));
+                    return ResponseEntity.ok(body);
+                })
+                .exceptionally(TableGenController::failure);
+    }
+
+    /**
+     * Coalescing of identical concurrent /api/generate requests: how many shared an in-flight read,
+     * how many are waiting right now, and the most that ever waited on one flight.
+     */
+    @GetMapping("/stats/coalescing")
+    public ResponseEntity<Map<String, Object>> coalescingStats() {
+        SingleFlight.Stats stats = tableGenService.coalescingStats();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("calls", stats.calls());
+        body.put("leaders", stats.leaders());
+        body.put("coalesced", stats.coalesced());
+        body.put("hitRate", stats.hitRate());
+        body.put("inFlight", stats.inFlight());
+        body.put("waiting", stats.waiting());
+        body.put("maxWaiters", stats.maxWaiters());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Drops cached column metadata so the next generation re-reads the catalog.
+     * Omitting table (or schema) widens the scope; omitting dbUrl clears the whole cache.
+     */
+    @PostMapping("/cache/invalidate")
+    public ResponseEntity<Map<String, Integer>> invalidateCache(@RequestBody(required = false) CacheInvalidateRequest request) {
+        CacheInvalidateRequest target = request != null ? request : new CacheInvalidateRequest();
+        int removed = tableGenService.invalidateMetadata(target.getDbUrl(), target.getSchema(), target.getTable());
+        return ResponseEntity.ok(Map.of("invalidated", removed));
     }
 }
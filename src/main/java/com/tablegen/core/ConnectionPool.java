@@ -0,0 +1,209 @@
+package com.tablegen.core;
+
+import com.tablegen.core.dialect.Dialect;
+import com.tablegen.core.dialect.Dialects;
+
+import com.tablegen.jfr.ConnectionAcquireEvent;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for a single (url, user, password) target.
+ * The semaphore bounds how many connections may be open at once; idle ones are kept LIFO
+ * so the warmest connection is handed out first and the coldest ones age out.
+ */
+class ConnectionPool {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int validationTimeoutSeconds;
+    private final long borrowTimeoutMillis;
+    private final int connectTimeoutSeconds;
+    private final int socketTimeoutSeconds;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private volatile long lastUsedAt = System.currentTimeMillis();
+    private volatile boolean closed = false;
+    private volatile Dialect dialect;
+
+    ConnectionPool(String url, String user, String password, int maxSize, int validationTimeoutSeconds, long borrowTimeoutMillis,
+                   int connectTimeoutSeconds, int socketTimeoutSeconds) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        this.socketTimeoutSeconds = socketTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Waiting for a permit and opening a new connection are both cut short by the deadline.
+     */
+    Connection borrow(Deadline deadline) throws SQLException {
+        ConnectionAcquireEvent event = ConnectionAcquireEvent.start();
+        boolean opened = false;
+        boolean succeeded = false;
+        try {
+            try {
+                long waitMillis = Math.min(borrowTimeoutMillis, deadline.remainingMillis());
+                if (!permits.tryAcquire(Math.max(0, waitMillis), TimeUnit.MILLISECONDS)) {
+                    deadline.check();
+                    throw new SQLException("Timed out waiting for a pooled connection to " + url);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a pooled connection", e);
+            }
+            event.permitted();
+
+            try {
+                PooledConnection pooled = takeValidIdle();
+                if (pooled == null) {
+                    deadline.check();
+                    opened = true;
+                    pooled = new PooledConnection(this, DriverLoader.connect(url, user, password,
+                            connectTimeoutSeconds(deadline), socketTimeoutSeconds));
+                }
+                borrowed.incrementAndGet();
+                lastUsedAt = System.currentTimeMillis();
+                Connection handle = pooled.newHandle();
+                succeeded = true;
+                return handle;
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        } finally {
+            event.finish(dialectName(), opened, succeeded);
+        }
+    }
+
+    // For events only: the detected dialect, else the one the URL names
+    private String dialectName() {
+        Dialect detected = dialect != null ? dialect : Dialects.forUrl(url);
+        return detected != null ? detected.name() : PhaseMetrics.UNKNOWN;
+    }
+
+    private int connectTimeoutSeconds(Deadline deadline) throws SQLException {
+        // Never 0 under a deadline: 0 would mean the driver's own, possibly unbounded, default
+        return Math.max(1, deadline.queryTimeoutSeconds(connectTimeoutSeconds));
+    }
+
+    /**
+     * Every connection of a pool talks to the same server, so the dialect is detected once per pool.
+     */
+    Dialect dialect(Connection physical) throws SQLException {
+        Dialect detected = dialect;
+        if (detected == null) {
+            detected = Dialects.detect(physical);
+            dialect = detected;
+        }
+        return detected;
+    }
+
+    void release(PooledConnection pooled) {
+        borrowed.decrementAndGet();
+        lastUsedAt = System.currentTimeMillis();
+        try {
+            if (closed || !resetForReuse(pooled.physical())) {
+                pooled.closeQuietly();
+                return;
+            }
+            synchronized (idle) {
+                // Rechecked under the lock: close() may have drained the idle list since the check above
+                if (!closed) {
+                    pooled.touch();
+                    idle.push(pooled);
+                    return;
+                }
+            }
+            pooled.closeQuietly();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes connections that have been idle longer than the given timeout.
+     */
+    void evictIdle(long idleTimeoutMillis) {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        synchronized (idle) {
+            Iterator<PooledConnection> it = idle.descendingIterator(); // oldest first
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                if (pooled.lastUsedAt() < cutoff) {
+                    it.remove();
+                    pooled.closeQuietly();
+                }
+            }
+        }
+    }
+
+    boolean isInUse() {
+        return borrowed.get() > 0;
+    }
+
+    long lastUsedAt() {
+        return lastUsedAt;
+    }
+
+    void close() {
+        synchronized (idle) {
+            closed = true;
+            for (PooledConnection pooled : idle) {
+                pooled.closeQuietly();
+            }
+            idle.clear();
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                // Taken and marked used under the lock, so evictIdle() and close() never see it again
+                if (closed) {
+                    return null;
+                }
+                pooled = idle.poll();
+                if (pooled == null) {
+                    return null;
+                }
+                pooled.touch();
+            }
+            // Validation-on-borrow: a connection dropped by a firewall or DB restart is discarded here
+            if (pooled.isValid(validationTimeoutSeconds)) {
+                return pooled;
+            }
+            pooled.closeQuietly();
+        }
+    }
+
+    private boolean resetForReuse(Connection physical) {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
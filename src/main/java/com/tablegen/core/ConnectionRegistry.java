@@ -0,0 +1,178 @@
+package com.tablegen.core;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps one small connection pool per (dbUrl, user, credential hash) so repeated generations
+ * against the same database reuse warm connections instead of paying the handshake every time.
+ *
+ * Pools are kept in LRU order; when the global cap is reached the least recently used idle
+ * pool is closed to make room. A background sweeper closes connections idle for too long.
+ */
+public class ConnectionRegistry implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_POOLS = 16;
+    public static final int DEFAULT_MAX_POOL_SIZE = 4;
+    public static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 300;
+    public static final int DEFAULT_VALIDATION_TIMEOUT_SECONDS = 2;
+    public static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 10;
+    public static final int DEFAULT_SOCKET_TIMEOUT_SECONDS = 300;
+    private static final long BORROW_TIMEOUT_MILLIS = 30_000;
+
+    private final int maxPools;
+    private final int maxPoolSize;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int connectTimeoutSeconds;
+    private final int socketTimeoutSeconds;
+
+    // Access-ordered: iteration starts at the least recently used pool
+    private final LinkedHashMap<PoolKey, ConnectionPool> pools = new LinkedHashMap<>(16, 0.75f, true);
+    private final ScheduledExecutorService evictor;
+
+    public ConnectionRegistry() {
+        this(DEFAULT_MAX_POOLS, DEFAULT_MAX_POOL_SIZE, DEFAULT_IDLE_TIMEOUT_SECONDS, DEFAULT_VALIDATION_TIMEOUT_SECONDS);
+    }
+
+    public ConnectionRegistry(int maxPools, int maxPoolSize, long idleTimeoutSeconds, int validationTimeoutSeconds) {
+        this(maxPools, maxPoolSize, idleTimeoutSeconds, validationTimeoutSeconds,
+                DEFAULT_CONNECT_TIMEOUT_SECONDS, DEFAULT_SOCKET_TIMEOUT_SECONDS);
+    }
+
+    /**
+     * @param connectTimeoutSeconds bound on opening a connection, passed to the driver per dialect
+     * @param socketTimeoutSeconds bound on each socket read, 0 for none
+     */
+    public ConnectionRegistry(int maxPools, int maxPoolSize, long idleTimeoutSeconds, int validationTimeoutSeconds,
+                              int connectTimeoutSeconds, int socketTimeoutSeconds) {
+        if (maxPools < 1 || maxPoolSize < 1) {
+            throw new IllegalArgumentException("Pool limits must be positive");
+        }
+        if (connectTimeoutSeconds < 1 || socketTimeoutSeconds < 0) {
+            throw new IllegalArgumentException("Connect timeout must be positive and socket timeout not negative");
+        }
+        this.maxPools = maxPools;
+        this.maxPoolSize = maxPoolSize;
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        this.socketTimeoutSeconds = socketTimeoutSeconds;
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "tablegen-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long sweepMillis = Math.max(1_000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection for the given target. Closing the returned connection returns it to the pool.
+     */
+    public Connection getConnection(String url, String user, String password) throws SQLException {
+        return getConnection(url, user, password, Deadline.unbounded());
+    }
+
+    /**
+     * Like {@link #getConnection(String, String, String)}, but waiting for a free connection and
+     * opening a new one both end at the deadline.
+     */
+    public Connection getConnection(String url, String user, String password, Deadline deadline) throws SQLException {
+        PoolKey key = new PoolKey(url, user, hashCredential(password));
+        ConnectionPool pool;
+        synchronized (pools) {
+            pool = pools.get(key);
+            if (pool == null) {
+                makeRoom();
+                pool = new ConnectionPool(url, user, password, maxPoolSize, validationTimeoutSeconds, BORROW_TIMEOUT_MILLIS,
+                        connectTimeoutSeconds, socketTimeoutSeconds);
+                pools.put(key, pool);
+            }
+        }
+        return pool.borrow(deadline);
+    }
+
+    public int poolCount() {
+        synchronized (pools) {
+            return pools.size();
+        }
+    }
+
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+        List<ConnectionPool> toClose;
+        synchronized (pools) {
+            toClose = new ArrayList<>(pools.values());
+            pools.clear();
+        }
+        toClose.forEach(ConnectionPool::close);
+    }
+
+    private void makeRoom() throws SQLException {
+        if (pools.size() < maxPools) {
+            return;
+        }
+        Iterator<ConnectionPool> it = pools.values().iterator();
+        while (it.hasNext()) {
+            ConnectionPool candidate = it.next();
+            if (!candidate.isInUse()) {
+                it.remove();
+                candidate.close();
+                return;
+            }
+        }
+        throw new SQLException("Connection pool limit reached: all " + maxPools + " pools are in use");
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        List<ConnectionPool> expired = new ArrayList<>();
+        List<ConnectionPool> live = new ArrayList<>();
+        synchronized (pools) {
+            Iterator<Map.Entry<PoolKey, ConnectionPool>> it = pools.entrySet().iterator();
+            while (it.hasNext()) {
+                ConnectionPool pool = it.next().getValue();
+                if (!pool.isInUse() && pool.lastUsedAt() < cutoff) {
+                    it.remove();
+                    expired.add(pool);
+                } else {
+                    live.add(pool);
+                }
+            }
+        }
+        expired.forEach(ConnectionPool::close);
+        live.forEach(pool -> pool.evictIdle(idleTimeoutMillis));
+    }
+
+    /**
+     * SHA-256 of the password, for keys that must tell logins apart without holding the password.
+     */
+    public static String hashCredential(String password) {
+        if (password == null) {
+            return "";
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record PoolKey(String url, String user, String credentialHash) {}
+}
@@ -0,0 +1,178 @@
+package com.tablegen.core;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which a request's database work must be finished.
+ *
+ * Statements run under a deadline get a query timeout no longer than the time left, and are
+ * registered so that {@link #cancel(String)} can call {@link Statement#cancel()} on them. That
+ * happens automatically when the deadline passes, or explicitly, e.g. when the HTTP client disconnects.
+ * A statement that is still running {@value #ABORT_GRACE_MILLIS} ms after the cancel (a server that
+ * does not answer at all) has its connection aborted, which closes the socket under the blocked read.
+ * Close the deadline once the request is done to drop its timer.
+ */
+public final class Deadline implements AutoCloseable {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "tablegen-deadline");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final long ABORT_GRACE_MILLIS = 2_000;
+
+    private static final Deadline UNBOUNDED = new Deadline(Long.MAX_VALUE);
+
+    /**
+     * Unregisters a statement once it has finished.
+     */
+    public interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final long expiresAtNanos;
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+    private volatile String cancelReason;
+    private volatile ScheduledFuture<?> expiry;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    /**
+     * A deadline {@code millis} from now; running statements are cancelled when it passes.
+     */
+    public static Deadline after(long millis) {
+        Deadline deadline = new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+        deadline.expiry = TIMER.schedule(() -> deadline.cancel("deadline of " + millis + " ms exceeded"),
+                millis, TimeUnit.MILLISECONDS);
+        return deadline;
+    }
+
+    /**
+     * No deadline: statements keep only their own timeouts. Used by the CLI.
+     */
+    public static Deadline unbounded() {
+        return UNBOUNDED;
+    }
+
+    public boolean isUnbounded() {
+        return expiresAtNanos == Long.MAX_VALUE;
+    }
+
+    public long remainingMillis() {
+        if (isUnbounded()) {
+            return Long.MAX_VALUE;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime());
+    }
+
+    /**
+     * True once the deadline has passed or the work was cancelled.
+     */
+    public boolean isDone() {
+        return cancelReason != null || remainingMillis() <= 0;
+    }
+
+    /**
+     * Cancels every registered statement; later ones are cancelled as soon as they register.
+     */
+    public void cancel(String reason) {
+        if (this == UNBOUNDED) {
+            return;
+        }
+        if (cancelReason == null) {
+            cancelReason = reason;
+        }
+        for (Statement statement : running) {
+            cancelRunning(statement);
+        }
+    }
+
+    /**
+     * @throws SQLTimeoutException if the deadline has passed or the work was cancelled
+     */
+    public void check() throws SQLTimeoutException {
+        if (isDone()) {
+            throw timeout(null);
+        }
+    }
+
+    /**
+     * The query timeout for a statement: the time left, capped by the statement's own limit
+     * (0 for none). 0 means no timeout, which only happens without a deadline and without a limit.
+     */
+    public int queryTimeoutSeconds(int limitSeconds) throws SQLTimeoutException {
+        check();
+        if (isUnbounded()) {
+            return limitSeconds;
+        }
+        long left = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMillis() + 999));
+        return (int) (limitSeconds > 0 ? Math.min(limitSeconds, left) : Math.min(Integer.MAX_VALUE, left));
+    }
+
+    public Registration track(Statement statement) {
+        if (this == UNBOUNDED) {
+            return () -> {};
+        }
+        running.add(statement);
+        if (cancelReason != null) {
+            cancelRunning(statement);
+        }
+        return () -> running.remove(statement);
+    }
+
+    /**
+     * The exception to report for work stopped by this deadline, with the driver's error as cause.
+     */
+    public SQLTimeoutException timeout(SQLException cause) {
+        String reason = cancelReason != null ? cancelReason : "deadline exceeded";
+        return new SQLTimeoutException("Database work cancelled: " + reason, "57014", cause);
+    }
+
+    @Override
+    public void close() {
+        ScheduledFuture<?> scheduled = expiry;
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+    }
+
+    private void cancelRunning(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException | RuntimeException ignored) {
+            // The statement may already have finished or been closed
+        }
+        TIMER.schedule(() -> {
+            if (running.contains(statement)) {
+                abortQuietly(statement);
+            }
+        }, ABORT_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // The pool sees the closed connection when it is returned and discards it
+    private static void abortQuietly(Statement statement) {
+        try {
+            Connection connection = statement.getConnection();
+            connection.abort(r -> {
+                Thread t = new Thread(r, "tablegen-abort");
+                t.setDaemon(true);
+                t.start();
+            });
+        } catch (SQLException | RuntimeException ignored) {
+            // Already closed
+        }
+    }
+}
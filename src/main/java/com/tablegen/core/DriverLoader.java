@@ -0,0 +1,132 @@
+package com.tablegen.core;
+
+import com.tablegen.core.dialect.Dialect;
+import com.tablegen.core.dialect.Dialects;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.jar.JarFile;
+
+/**
+ * Opens connections through the one driver the URL needs instead of letting {@link DriverManager}
+ * initialise every driver on the classpath. The driver class comes from the matching {@link Dialect}
+ * and is loaded on first use, either from a jar in the drivers directory (each in its own class
+ * loader) or from the application classpath.
+ *
+ * The drivers directory is ~/.tablegen/drivers, or the "tablegen.drivers.dir" system property.
+ * A jar found there takes precedence, so a driver can be upgraded or added to a CLI jar built without it.
+ */
+public final class DriverLoader {
+
+    private static final Map<String, Driver> DRIVERS = new HashMap<>();
+
+    private DriverLoader() {}
+
+    public static Connection connect(String url, String user, String password) throws SQLException {
+        return connect(url, user, password, 0, 0);
+    }
+
+    /**
+     * @param connectTimeoutSeconds bound on opening the connection, 0 for the driver's default
+     * @param socketTimeoutSeconds bound on each socket read, 0 for none
+     */
+    public static Connection connect(String url, String user, String password,
+                                     int connectTimeoutSeconds, int socketTimeoutSeconds) throws SQLException {
+        Dialect dialect = Dialects.forUrl(url);
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Connection connection = open(dialect, url, user, password, connectTimeoutSeconds, socketTimeoutSeconds);
+            outcome = "success";
+            return connection;
+        } finally {
+            PhaseMetrics.time(PhaseMetrics.CONNECT, start,
+                    "dialect", dialect != null ? dialect.name() : PhaseMetrics.UNKNOWN, "outcome", outcome);
+        }
+    }
+
+    private static Connection open(Dialect dialect, String url, String user, String password,
+                                   int connectTimeoutSeconds, int socketTimeoutSeconds) throws SQLException {
+        if (dialect == null) {
+            // No dialect claims this URL: let DriverManager search whatever drivers are registered
+            return DriverManager.getConnection(url, user, password);
+        }
+
+        Properties info = connectTimeoutSeconds > 0
+                ? dialect.connectionProperties(connectTimeoutSeconds, socketTimeoutSeconds)
+                : new Properties();
+        if (user != null) info.setProperty("user", user);
+        if (password != null) info.setProperty("password", password);
+
+        Connection connection = driver(dialect.driverClassName()).connect(dialect.driverUrl(url), info);
+        if (connection == null) {
+            throw new SQLException("Driver " + dialect.driverClassName() + " does not accept URL " + url);
+        }
+        return connection;
+    }
+
+    static synchronized Driver driver(String className) throws SQLException {
+        Driver driver = DRIVERS.get(className);
+        if (driver == null) {
+            driver = load(className);
+            DRIVERS.put(className, driver);
+        }
+        return driver;
+    }
+
+    private static Driver load(String className) throws SQLException {
+        try {
+            // 1. Optional driver jar, isolated from the application classpath
+            ClassLoader loader = externalLoader(className);
+            if (loader == null) {
+                // 2. Bundled driver
+                loader = DriverLoader.class.getClassLoader();
+            }
+            Class<?> type = Class.forName(className, true, loader);
+            return (Driver) type.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("JDBC driver " + className + " not found. Put its jar in " + driversDir(), e);
+        } catch (ReflectiveOperationException | IOException e) {
+            throw new SQLException("Cannot load JDBC driver " + className + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static ClassLoader externalLoader(String className) throws IOException {
+        Path dir = driversDir();
+        if (!Files.isDirectory(dir)) {
+            return null;
+        }
+        String entry = className.replace('.', '/') + ".class";
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(dir, "*.jar")) {
+            for (Path jar : jars) {
+                try (JarFile file = new JarFile(jar.toFile())) {
+                    if (file.getEntry(entry) != null) {
+                        // Parent is the platform loader so a bundled copy of the same driver cannot interfere
+                        return new URLClassLoader(new URL[]{jar.toUri().toURL()}, ClassLoader.getPlatformClassLoader());
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    static Path driversDir() {
+        String configured = System.getProperty("tablegen.drivers.dir");
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".tablegen", "drivers");
+    }
+}
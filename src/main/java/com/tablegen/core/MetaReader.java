@@ -1,214 +1,465 @@
 package com.tablegen.core;
 
+import com.tablegen.core.dialect.Dialect;
+import com.tablegen.core.dialect.Dialects;
+import com.tablegen.jfr.CatalogQueryEvent;
+import com.tablegen.jfr.DescribeEvent;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class MetaReader {
 
+    // Large enough that a schema-wide read needs few round trips, small enough to stream
+    private static final int BULK_FETCH_SIZE = 1000;
+
+    // Applied to query-mode statements unless the caller supplies its own
+    public static final int DEFAULT_QUERY_TIMEOUT_SECONDS = 30;
+
     private final Connection connection;
+    private final int queryTimeoutSeconds;
+    private final Deadline deadline;
+    private Dialect dialect;
+    private PooledConnection pooled;
+    private boolean pooledChecked;
 
     public MetaReader(Connection connection) {
+        this(connection, DEFAULT_QUERY_TIMEOUT_SECONDS);
+    }
+
+    public MetaReader(Connection connection, int queryTimeoutSeconds) {
+        this(connection, queryTimeoutSeconds, Deadline.unbounded());
+    }
+
+    /**
+     * Every statement gets a query timeout within the deadline and is cancelled when it expires.
+     */
+    public MetaReader(Connection connection, int queryTimeoutSeconds, Deadline deadline) {
         this.connection = connection;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.deadline = deadline;
     }
 
     public List<ColumnMeta> getColumns(String schema, String table) throws SQLException {
         // Handle "schema.table" notation in table parameter
-        if (table.contains(".")) {
-            String[] parts = table.split("\\.");
-            if (parts.length == 2) {
-                schema = parts[0];
-                table = parts[1];
-            }
-        }
+        TableRef ref = TableRef.of(schema, table);
+        schema = ref.schema();
+        table = ref.table();
 
-        String dbProductName = connection.getMetaData().getDatabaseProductName().toLowerCase();
+        long start = System.nanoTime();
+        CatalogQueryEvent event = CatalogQueryEvent.start("columns", 1);
         List<ColumnMeta> columns = new ArrayList<>();
-        String sql;
-
-        if (dbProductName.contains("oracle")) {
-            sql = """
-                SELECT 
-                    t.COLUMN_NAME, 
-                    t.DATA_TYPE as COLUMN_TYPE, 
-                    t.NULLABLE as IS_NULLABLE, 
-                    '' as COLUMN_KEY, 
-                    c.COMMENTS as COLUMN_COMMENT, 
-                    t.COLUMN_ID as ORDINAL_POSITION
-                FROM ALL_TAB_COLUMNS t
-                LEFT JOIN ALL_COL_COMMENTS c 
-                    ON t.OWNER = c.OWNER 
-                    AND t.TABLE_NAME = c.TABLE_NAME 
-                    AND t.COLUMN_NAME = c.COLUMN_NAME
-                WHERE t.OWNER = ? AND t.TABLE_NAME = ?
-                ORDER BY t.COLUMN_ID
-            """;
-        } else if (dbProductName.contains("postgresql")) {
-            sql = """
-                SELECT 
-                    column_name as COLUMN_NAME, 
-                    udt_name as COLUMN_TYPE, 
-                    is_nullable as IS_NULLABLE, 
-                    '' as COLUMN_KEY, 
-                    '' as COLUMN_COMMENT, 
-                    ordinal_position as ORDINAL_POSITION
-                FROM information_schema.columns 
-                WHERE table_schema = ? AND table_name = ? 
-                ORDER BY ordinal_position
-            """;
-        } else {
-            // MySQL, MariaDB (Standard with MySQL extensions like COLUMN_TYPE)
-            sql = """
-                SELECT COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE, COLUMN_KEY, COLUMN_COMMENT, ORDINAL_POSITION
-                FROM information_schema.COLUMNS
-                WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?
-                ORDER BY ORDINAL_POSITION
-            """;
-        }
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        String sql = dialect().catalogSql(1);
+
+        try (Prepared prepared = prepareReusable(sql)) {
+            PreparedStatement ps = prepared.statement();
             ps.setString(1, schema);
             ps.setString(2, table);
 
             try (ResultSet rs = ps.executeQuery()) {
+                event.executed();
                 while (rs.next()) {
-                    String isNullable = rs.getString("IS_NULLABLE"); // Y/N or YES/NO
-                    boolean nullable = "YES".equalsIgnoreCase(isNullable) || "Y".equalsIgnoreCase(isNullable);
-                    
-                    columns.add(new ColumnMeta(
-                        rs.getString("COLUMN_NAME"),
-                        rs.getString("COLUMN_TYPE"),
-                        nullable,
-                        "PRI".equalsIgnoreCase(rs.getString("COLUMN_KEY")), // Oracle doesn't return this easily here, might need adjustment if PK is critical
-                        rs.getString("COLUMN_COMMENT"),
-                        rs.getInt("ORDINAL_POSITION")
-                    ));
+                    columns.add(mapColumn(rs));
                 }
             }
+        } finally {
+            timeCatalog(start, "table");
+            event.finish(dialectName(), columns.size());
         }
         return columns;
     }
 
-    public List<ColumnMeta> getColumnsFromQuery(String userQuery, String defaultSchema) throws SQLException {
-        List<ColumnMeta> columns = new ArrayList<>();
-        // Wrap query to avoid fetching data
-        String wrapperSql = "SELECT * FROM (" + userQuery + ") AS _wrapper_table WHERE 1=0";
-
-        // 1. Parse potential table names from query (Heuristic)
-        // Matches "FROM table", "JOIN table", "FROM schema.table", "JOIN schema.table"
-        // Also handles simple aliases like "FROM table A" (captures "table")
-        java.util.Set<String> potentialTables = new java.util.HashSet<>();
-        java.util.regex.Pattern pattern = java.util.regex.Pattern.compile("(?i)(?:FROM|JOIN)\\s+([a-zA-Z0-9_]+(?:\\.[a-zA-Z0-9_]+)?)");
-        java.util.regex.Matcher matcher = pattern.matcher(userQuery);
-        
-        while (matcher.find()) {
-            potentialTables.add(matcher.group(1));
-        }
-
-        // 2. Fetch all comments for these tables
-        // Map<ColumnName, Comment> - Last one wins for duplicate column names
-        java.util.Map<String, String> columnComments = new java.util.HashMap<>();
-        
-        if (!potentialTables.isEmpty()) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("SELECT COLUMN_NAME, COLUMN_COMMENT FROM information_schema.COLUMNS WHERE ");
-            
-            List<String> conditions = new ArrayList<>();
-            List<String> params = new ArrayList<>();
-            
-            for (String tableRef : potentialTables) {
-                String schema = defaultSchema;
-                String table = tableRef;
-                
-                if (tableRef.contains(".")) {
-                    String[] parts = tableRef.split("\\.");
-                    schema = parts[0];
-                    table = parts[1];
+    /**
+     * Reads every column of every table in the schema with a single ordered query.
+     *
+     * @return table name to columns, in table name order
+     */
+    public Map<String, List<ColumnMeta>> getColumnsBySchema(String schema) throws SQLException {
+        return readGrouped(schema, List.of());
+    }
+
+    /**
+     * Reads the columns of the given tables with a single ordered query.
+     * Tables that do not exist are simply absent from the result.
+     *
+     * @return table name to columns, in table name order
+     */
+    public Map<String, List<ColumnMeta>> getColumnsByTables(String schema, Collection<String> tables) throws SQLException {
+        if (tables.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return readGrouped(schema, new ArrayList<>(tables));
+    }
+
+    private Map<String, List<ColumnMeta>> readGrouped(String schema, List<String> tables) throws SQLException {
+        long start = System.nanoTime();
+        CatalogQueryEvent event = CatalogQueryEvent.start("columns", tables.size());
+        long rows = 0;
+        Map<String, List<ColumnMeta>> result = new LinkedHashMap<>();
+        String sql = dialect().catalogSql(tables.size());
+
+        // Schema-wide reads have a fixed shape; IN lists vary with the table count and are not kept
+        try (Prepared prepared = tables.isEmpty() ? prepareReusable(sql) : prepareOnce(sql, 0)) {
+            PreparedStatement ps = prepared.statement();
+            ps.setFetchSize(BULK_FETCH_SIZE);
+            int idx = 1;
+            ps.setString(idx++, schema);
+            for (String table : tables) {
+                ps.setString(idx++, table);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                event.executed();
+                // Rows arrive ordered by table, but a case-insensitive collation may interleave names that
+                // differ only in case, so a table seen again continues its list instead of replacing it
+                String currentTable = null;
+                List<ColumnMeta> current = null;
+                while (rs.next()) {
+                    String tableName = rs.getString("TABLE_NAME");
+                    if (!tableName.equals(currentTable)) {
+                        currentTable = tableName;
+                        current = result.computeIfAbsent(tableName, name -> new ArrayList<>());
+                    }
+                    current.add(mapColumn(rs));
+                    rows++;
                 }
-                
-                if (schema != null && !schema.isEmpty()) {
-                    conditions.add("(TABLE_SCHEMA = ? AND TABLE_NAME = ?)");
-                    params.add(schema);
-                    params.add(table);
+            }
+        } finally {
+            timeCatalog(start, tables.isEmpty() ? "schema" : "tables");
+            event.finish(dialectName(), rows);
+        }
+        return result;
+    }
+
+    private void timeCatalog(long start, String operation) {
+        PhaseMetrics.time(PhaseMetrics.CATALOG, start, "dialect", dialectName(), "operation", operation);
+    }
+
+    // For tags only: never detects, so a failed detection is not retried just to label a meter
+    private String dialectName() {
+        return dialect != null ? dialect.name() : PhaseMetrics.UNKNOWN;
+    }
+
+    private ColumnMeta mapColumn(ResultSet rs) throws SQLException {
+        String isNullable = rs.getString("IS_NULLABLE"); // Y/N or YES/NO
+        boolean nullable = "YES".equalsIgnoreCase(isNullable) || "Y".equalsIgnoreCase(isNullable);
+
+        return new ColumnMeta(
+            rs.getString("COLUMN_NAME"),
+            rs.getString("COLUMN_TYPE"),
+            nullable,
+            "PRI".equalsIgnoreCase(rs.getString("COLUMN_KEY")), // MySQL reports 'PRI' itself; the Postgres and Oracle catalog SQL derive it from the primary key constraint
+            rs.getString("COLUMN_COMMENT"),
+            rs.getInt("ORDINAL_POSITION")
+        );
+    }
+
+    /**
+     * The dialect of this connection. Pooled connections share the one detected for their pool;
+     * a plain connection is detected once per reader.
+     */
+    public Dialect dialect() throws SQLException {
+        if (dialect == null) {
+            PooledConnection pc = pooled();
+            dialect = pc != null ? pc.dialect() : Dialects.detect(connection);
+        }
+        return dialect;
+    }
+
+    private PooledConnection pooled() throws SQLException {
+        if (!pooledChecked) {
+            pooledChecked = true;
+            pooled = connection.isWrapperFor(PooledConnection.class) ? connection.unwrap(PooledConnection.class) : null;
+        }
+        return pooled;
+    }
+
+    // Statement plus whether closing it is ours to do; cached statements stay open on their connection
+    private record Prepared(PreparedStatement statement, boolean cached, Deadline.Registration registration) implements AutoCloseable {
+        @Override
+        public void close() throws SQLException {
+            registration.close();
+            if (!cached) {
+                statement.close();
+            }
+        }
+    }
+
+    // Dialect SQL of a fixed shape: kept open on a pooled connection and reused by later borrowers
+    private Prepared prepareReusable(String sql) throws SQLException {
+        PooledConnection pc = pooled();
+        if (pc != null) {
+            return guard(pc.statements().prepare(sql), true, 0);
+        }
+        return prepareOnce(sql, 0);
+    }
+
+    /**
+     * @param limitSeconds the statement's own query timeout, 0 for none; the deadline may shorten it
+     */
+    private Prepared prepareOnce(String sql, int limitSeconds) throws SQLException {
+        return guard(connection.prepareStatement(sql), false, limitSeconds);
+    }
+
+    private Prepared guard(PreparedStatement statement, boolean cached, int limitSeconds) throws SQLException {
+        try {
+            statement.setQueryTimeout(deadline.queryTimeoutSeconds(limitSeconds));
+        } catch (SQLException e) {
+            if (!cached) {
+                statement.close();
+            }
+            throw e;
+        }
+        return new Prepared(statement, cached, deadline.track(statement));
+    }
+
+    /**
+     * Returns a cheap marker that changes whenever the table definition changes, or null if the
+     * table is not found. Used by {@link MetadataCache} to revalidate entries without re-reading columns.
+     */
+    public String getChangeMarker(TableRef ref) throws SQLException {
+        CatalogQueryEvent event = CatalogQueryEvent.start("change marker", 1);
+        String marker = null;
+        try (Prepared prepared = prepareReusable(dialect().changeMarkerSql())) {
+            PreparedStatement ps = prepared.statement();
+            ps.setString(1, ref.schema());
+            ps.setString(2, ref.table());
+            try (ResultSet rs = ps.executeQuery()) {
+                event.executed();
+                marker = rs.next() ? rs.getString(1) : null;
+            }
+        } finally {
+            event.finish(dialectName(), marker != null ? 1 : 0);
+        }
+        return marker;
+    }
+
+    /**
+     * Change markers of every table in the schema with one query, so a watcher can find the few
+     * tables whose definition changed without reading any columns.
+     *
+     * @return table name to marker
+     */
+    public Map<String, String> getChangeMarkers(String schema) throws SQLException {
+        CatalogQueryEvent event = CatalogQueryEvent.start("change markers", 0);
+        Map<String, String> markers = new LinkedHashMap<>();
+        try (Prepared prepared = prepareReusable(dialect().schemaChangeMarkersSql())) {
+            PreparedStatement ps = prepared.statement();
+            ps.setFetchSize(BULK_FETCH_SIZE);
+            ps.setString(1, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                event.executed();
+                while (rs.next()) {
+                    markers.put(rs.getString("TABLE_NAME"), rs.getString("MARKER"));
                 }
             }
-            
-            if (!conditions.isEmpty()) {
-                sb.append(String.join(" OR ", conditions));
-                try (PreparedStatement ps = connection.prepareStatement(sb.toString())) {
-                    int idx = 1;
-                    for (String p : params) {
-                        ps.setString(idx++, p);
-                    }
+        } finally {
+            event.finish(dialectName(), markers.size());
+        }
+        return markers;
+    }
+
+    public List<ColumnMeta> getColumnsFromQuery(String userQuery, String defaultSchema) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return readQueryColumns(stripTerminator(userQuery), defaultSchema);
+        } finally {
+            timeCatalog(start, "query");
+        }
+    }
+
+    private List<ColumnMeta> readQueryColumns(String query, String defaultSchema) throws SQLException {
+
+        // 1. Resolve output labels to their source columns in one pass over the query
+        QueryColumnResolver.Resolution resolution = QueryColumnResolver.resolve(query, defaultSchema);
+
+        // 2. Fetch comments for every resolved table in a single round trip
+        long phaseStart = System.nanoTime();
+        CommentIndex comments = fetchComments(resolution.tables());
+        PhaseMetrics.time(PhaseMetrics.COMMENTS, phaseStart, "dialect", dialectName());
+
+        // 3. Describe the result shape; hash probes only: resolved source first, then the driver-reported name
+        phaseStart = System.nanoTime();
+        List<QueryColumn> described = describeQuery(query);
+        PhaseMetrics.time(PhaseMetrics.DESCRIBE, phaseStart, "dialect", dialectName());
+        List<ColumnMeta> columns = new ArrayList<>(described.size());
+        for (int i = 0; i < described.size(); i++) {
+            QueryColumn column = described.get(i);
+            String comment = comments.find(resolution.lookup(column.label()), column.originName());
+            columns.add(new ColumnMeta(
+                column.label(),
+                column.type(),
+                column.nullable(),
+                false,
+                comment != null ? comment : "",
+                i + 1
+            ));
+        }
+        return columns;
+    }
+
+    // Result column as reported by the driver, copied out before the statement closes
+    private record QueryColumn(String label, String originName, String type, boolean nullable) {}
+
+    // execute == false means metadata is taken from the prepared statement without running it
+    private record DescribeStep(String sql, boolean execute) {}
+
+    /**
+     * Reads the result columns of a query without producing rows. Tries a describe-only prepare first
+     * (server-side prepare on MariaDB, describe on Postgres and Oracle), then falls back to wrapper
+     * queries the dialect can short-circuit. A timeout is not retried with a heavier fallback.
+     */
+    private List<QueryColumn> describeQuery(String query) throws SQLException {
+        SQLException failure = null;
+        List<DescribeStep> steps = describeSteps(query);
+        for (int i = 0; i < steps.size(); i++) {
+            DescribeStep step = steps.get(i);
+            DescribeEvent event = DescribeEvent.start(i, step.execute());
+            List<QueryColumn> described = null;
+            try (Prepared prepared = prepareOnce(step.sql(), queryTimeoutSeconds)) {
+                PreparedStatement ps = prepared.statement();
+                if (step.execute()) {
+                    ps.setMaxRows(1);
                     try (ResultSet rs = ps.executeQuery()) {
-                        while (rs.next()) {
-                            String c = rs.getString("COLUMN_NAME");
-                            String cmt = rs.getString("COLUMN_COMMENT");
-                            if (cmt != null && !cmt.isBlank()) {
-                                columnComments.put(c, cmt);
-                            }
-                        }
+                        described = copyColumns(rs.getMetaData());
                     }
-                } catch (SQLException ignored) {
-                    // Ignore errors in heuristic comment fetching
+                } else {
+                    described = copyColumns(ps.getMetaData());
+                }
+                if (described != null) {
+                    return described;
                 }
+            } catch (SQLException e) {
+                if (deadline.isDone()) {
+                    throw deadline.timeout(e);
+                }
+                if (isTimeout(e)) {
+                    throw e;
+                }
+                // Keep the first error: it refers to the user's own SQL rather than our wrapper
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            } finally {
+                event.finish(dialectName(), described != null ? described.size() : 0, described != null);
+            }
+        }
+        throw failure != null ? failure : new SQLException("Could not describe query result columns");
+    }
+
+    private List<DescribeStep> describeSteps(String query) throws SQLException {
+        List<DescribeStep> steps = new ArrayList<>(3);
+        steps.add(new DescribeStep(query, false));
+        for (String wrapper : dialect().describeFallbacks(query)) {
+            steps.add(new DescribeStep(wrapper, true));
+        }
+        return steps;
+    }
+
+    private static List<QueryColumn> copyColumns(java.sql.ResultSetMetaData meta) throws SQLException {
+        if (meta == null || meta.getColumnCount() == 0) {
+            return null; // Driver could not describe without executing
+        }
+        int count = meta.getColumnCount();
+        List<QueryColumn> columns = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            columns.add(new QueryColumn(
+                meta.getColumnLabel(i), // Alias or Name
+                meta.getColumnName(i),  // Original Name
+                meta.getColumnTypeName(i),
+                meta.isNullable(i) == java.sql.ResultSetMetaData.columnNullable
+            ));
+        }
+        return columns;
+    }
+
+    private static boolean isTimeout(SQLException e) {
+        // 57014 is the standard "query canceled" state (Postgres); others raise SQLTimeoutException
+        return e instanceof java.sql.SQLTimeoutException || "57014".equals(e.getSQLState());
+    }
+
+    private static String stripTerminator(String query) {
+        String trimmed = query.strip();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).stripTrailing();
+        }
+        return trimmed;
+    }
+
+    private CommentIndex fetchComments(Collection<TableRef> tables) throws SQLException {
+        CommentIndex index = new CommentIndex();
+        Dialect dialect = dialect();
+        List<String> params = new ArrayList<>();
+        for (TableRef ref : tables) {
+            if (ref.schema() != null && !ref.schema().isEmpty()) {
+                params.add(dialect.catalogIdentifier(ref.schema()));
+                params.add(dialect.catalogIdentifier(ref.table()));
             }
         }
+        if (params.isEmpty()) return index;
 
-        try (PreparedStatement ps = connection.prepareStatement(wrapperSql);
-             ResultSet rs = ps.executeQuery()) {
-            
-            java.sql.ResultSetMetaData meta = rs.getMetaData();
-            int count = meta.getColumnCount();
-            
-            for (int i = 1; i <= count; i++) {
-                String label = meta.getColumnLabel(i); // Alias or Name
-                String originName = meta.getColumnName(i); // Original Name
-                String type = meta.getColumnTypeName(i);
-                int nullable = meta.isNullable(i);
-                
-                String comment = "";
-                // If originName is available and we have a comment for it, use it.
-                if (originName != null) {
-                    // 1. Try direct match
-                    if (columnComments.containsKey(originName)) {
-                        comment = columnComments.get(originName);
-                    } 
-                    // 2. If not found, it might be an Alias. Try to reverse-lookup the original name from the query.
-                    else {
-                        try {
-                            // Regex to find ".originalCol AS alias" or ".originalCol alias"
-                            // Captures group 1: originalCol
-                            String regex = "\\.\\s*([a-zA-Z0-9_]+)\\s+(?:AS\\s+)?\\b" + java.util.regex.Pattern.quote(originName) + "\\b";
-                            java.util.regex.Pattern aliasPattern = java.util.regex.Pattern.compile(regex, java.util.regex.Pattern.CASE_INSENSITIVE);
-                            java.util.regex.Matcher aliasMatcher = aliasPattern.matcher(userQuery);
-                            
-                            if (aliasMatcher.find()) {
-                                String realOriginName = aliasMatcher.group(1);
-                                if (columnComments.containsKey(realOriginName)) {
-                                    comment = columnComments.get(realOriginName);
-                                }
-                            }
-                        } catch (Exception ignored) {
-                            // Regex parsing failed, fallback to empty comment
-                        }
-                    }
+        CatalogQueryEvent event = CatalogQueryEvent.start("comments", params.size() / 2);
+        long rows = 0;
+        try (Prepared prepared = prepareOnce(dialect.commentsSql(params.size() / 2), queryTimeoutSeconds)) {
+            PreparedStatement ps = prepared.statement();
+            int idx = 1;
+            for (String p : params) {
+                ps.setString(idx++, p);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                event.executed();
+                while (rs.next()) {
+                    rows++;
+                    index.put(rs.getString("TABLE_SCHEMA"), rs.getString("TABLE_NAME"),
+                            rs.getString("COLUMN_NAME"), rs.getString("COLUMN_COMMENT"));
                 }
-                
-                columns.add(new ColumnMeta(
-                    label,
-                    type,
-                    nullable == java.sql.ResultSetMetaData.columnNullable,
-                    false, 
-                    comment,    
-                    i
-                ));
             }
+        } catch (SQLException e) {
+            // Comments are best effort; the column list itself still comes from the query
+            if (deadline.isDone()) {
+                throw deadline.timeout(e);
+            }
+        } finally {
+            event.finish(dialect.name(), rows);
+        }
+        return index;
+    }
+
+    /**
+     * Comments keyed by schema.table.column, with a by-name fallback for columns that could not be
+     * pinned to a table. Keys are lower-cased so unquoted identifiers match regardless of case.
+     */
+    private static final class CommentIndex {
+        private final Map<String, String> byQualifiedName = new java.util.HashMap<>();
+        private final Map<String, String> byColumnName = new java.util.HashMap<>(); // last one wins
+
+        void put(String schema, String table, String column, String comment) {
+            if (column == null || comment == null || comment.isBlank()) return;
+            byQualifiedName.put(qualified(schema, table, column), comment);
+            byColumnName.put(column.toLowerCase(java.util.Locale.ROOT), comment);
+        }
+
+        String find(QueryColumnResolver.SourceColumn source, String originName) {
+            // A column pinned to a table never borrows a same-named column's comment from another table
+            if (source != null && source.table() != null && source.schema() != null) {
+                return byQualifiedName.get(qualified(source.schema(), source.table(), source.column()));
+            }
+            String column = source != null ? source.column() : originName;
+            return column != null ? byColumnName.get(column.toLowerCase(java.util.Locale.ROOT)) : null;
+        }
+
+        private static String qualified(String schema, String table, String column) {
+            return (schema + '.' + table + '.' + column).toLowerCase(java.util.Locale.ROOT);
         }
-        return columns;
     }
 
     public List<ColumnMeta> getColumnsFromQuery(String userQuery) throws SQLException {
@@ -223,12 +474,15 @@ public class MetaReader {
         java.util.Map<String, String> commentMap = new java.util.HashMap<>();
         java.util.Set<String> duplicateKeys = new java.util.HashSet<>();
 
-        String sql = "SELECT COLUMN_NAME, COLUMN_COMMENT FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?";
-        
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+        CatalogQueryEvent event = CatalogQueryEvent.start("schema comments", 0);
+        long rows = 0;
+        try (Prepared prepared = prepareReusable(dialect().schemaCommentsSql())) {
+            PreparedStatement ps = prepared.statement();
             ps.setString(1, schema);
             try (ResultSet rs = ps.executeQuery()) {
+                event.executed();
                 while (rs.next()) {
+                    rows++;
                     String colName = rs.getString("COLUMN_NAME");
                     String comment = rs.getString("COLUMN_COMMENT");
                     
@@ -243,6 +497,8 @@ public class MetaReader {
                     }
                 }
             }
+        } finally {
+            event.finish(dialectName(), rows);
         }
         return commentMap;
     }
@@ -0,0 +1,172 @@
+package com.tablegen.core;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches table column metadata keyed by (server, login, schema, table).
+ *
+ * The login (user and a hash of the password, see {@link #login(String, String)}) is part of the key
+ * because a hit is served without connecting: an entry read under one login must never answer a
+ * request made with another login or a wrong password.
+ *
+ * Within the TTL a hit costs nothing. After the TTL the entry is revalidated with the dialect's
+ * change marker (see {@link MetaReader#getChangeMarker(TableRef)}): if the marker is unchanged
+ * the entry is renewed after one tiny query, otherwise the columns are read again.
+ */
+public class MetadataCache {
+
+    public static final long DEFAULT_TTL_SECONDS = 60;
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final LinkedHashMap<Key, Entry> entries;
+
+    public MetadataCache() {
+        this(DEFAULT_TTL_SECONDS, DEFAULT_MAX_ENTRIES);
+    }
+
+    public MetadataCache(long ttlSeconds, int maxEntries) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > MetadataCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached columns if they are still within the TTL, otherwise null.
+     * Never touches the database, so callers can skip borrowing a connection on a hit.
+     */
+    public List<ColumnMeta> getIfFresh(String server, String login, TableRef ref) {
+        Entry entry = get(new Key(server, login, ref.schema(), ref.table()));
+        if (entry != null && entry.isFresh(ttlMillis)) {
+            return entry.columns;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the columns for the table, revalidating or reloading through the reader when needed.
+     */
+    public List<ColumnMeta> getColumns(String server, String login, TableRef ref, MetaReader reader) throws SQLException {
+        Key key = new Key(server, login, ref.schema(), ref.table());
+        Entry entry = get(key);
+        if (entry != null && entry.isFresh(ttlMillis)) {
+            return entry.columns;
+        }
+
+        String marker = reader.getChangeMarker(ref);
+        if (entry != null && marker != null && marker.equals(entry.marker)) {
+            entry.renew();
+            return entry.columns;
+        }
+
+        List<ColumnMeta> columns = reader.getColumns(ref.schema(), ref.table());
+        if (!columns.isEmpty()) {
+            put(key, new Entry(List.copyOf(columns), marker));
+        }
+        return columns;
+    }
+
+    /**
+     * Stores columns read elsewhere (e.g. a schema-wide read). Without a change marker the entry
+     * is fully re-read once the TTL expires.
+     */
+    public void put(String server, String login, TableRef ref, List<ColumnMeta> columns) {
+        if (!columns.isEmpty()) {
+            put(new Key(server, login, ref.schema(), ref.table()), new Entry(List.copyOf(columns), null));
+        }
+    }
+
+    /**
+     * The login part of the key: the user and a hash of the password, never the password itself.
+     */
+    public static String login(String user, String password) {
+        return (user == null ? "" : user) + ":" + ConnectionRegistry.hashCredential(password);
+    }
+
+    /**
+     * Drops matching entries of every login. A null schema or table acts as a wildcard.
+     *
+     * @return number of entries removed
+     */
+    public int invalidate(String server, String schema, String table) {
+        int removed = 0;
+        synchronized (entries) {
+            Iterator<Key> it = entries.keySet().iterator();
+            while (it.hasNext()) {
+                Key key = it.next();
+                if (matches(server, key.server) && matches(schema, key.schema) && matches(table, key.table)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Entry get(Key key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void put(Key key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private static boolean matches(String filter, String value) {
+        return filter == null || filter.isBlank() || filter.equalsIgnoreCase(value);
+    }
+
+    private record Key(String server, String login, String schema, String table) {
+        Key {
+            Objects.requireNonNull(server, "server");
+            Objects.requireNonNull(login, "login");
+        }
+    }
+
+    private static final class Entry {
+        private final List<ColumnMeta> columns;
+        private final String marker;
+        private volatile long validatedAt;
+
+        Entry(List<ColumnMeta> columns, String marker) {
+            this.columns = columns;
+            this.marker = marker;
+            this.validatedAt = System.currentTimeMillis();
+        }
+
+        boolean isFresh(long ttlMillis) {
+            return System.currentTimeMillis() - validatedAt < ttlMillis;
+        }
+
+        void renew() {
+            validatedAt = System.currentTimeMillis();
+        }
+    }
+}
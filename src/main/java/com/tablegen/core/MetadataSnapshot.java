@@ -0,0 +1,293 @@
+package com.tablegen.core;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column catalogs exported to a file, so templates can be regenerated without a database.
+ *
+ * The file is memory-mapped and read in place: opening it only parses the header and table directory,
+ * strings are decoded on first use and a table's columns only when that table is asked for. Layout
+ * (big-endian):
+ * <pre>
+ * "TGSN" | version u16 | reserved u16 | createdAt i64 | schema str | source str
+ * stringCount i32 | stringOffsets i32[stringCount + 1] | string bytes (UTF-8)
+ * tableCount i32 | (name str, columnCount i32, firstColumn i32)[tableCount]
+ * (name str, type str, comment str, flags u8, ordinal i32)[all columns]
+ * </pre>
+ * where "str" is an i32 index into the de-duplicated string table, or -1 for null.
+ */
+public final class MetadataSnapshot {
+
+    public static final String FILE_EXTENSION = ".tgsnap";
+
+    private static final int MAGIC = 0x5447534E; // "TGSN"
+    private static final short VERSION = 1;
+    private static final int COLUMN_RECORD_BYTES = 4 + 4 + 4 + 1 + 4;
+    private static final byte FLAG_NULLABLE = 1;
+    private static final byte FLAG_KEY = 2;
+
+    private final ByteBuffer buffer;
+    private final Instant createdAt;
+    private final String schema;
+    private final String source;
+    private final int stringOffsetsAt;
+    private final int stringDataAt;
+    private final String[] strings;
+    private final Map<String, int[]> tables; // name -> {columnCount, firstColumn}, in export order
+    private final int columnsAt;
+
+    private MetadataSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.remaining() < 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a tablegen metadata snapshot");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + " (expected " + VERSION + ")");
+        }
+
+        int pos = 8;
+        createdAt = Instant.ofEpochMilli(buffer.getLong(pos));
+        pos += 8;
+        int schemaIndex = buffer.getInt(pos);
+        int sourceIndex = buffer.getInt(pos + 4);
+        pos += 8;
+
+        int stringCount = buffer.getInt(pos);
+        pos += 4;
+        stringOffsetsAt = pos;
+        stringDataAt = pos + (stringCount + 1) * 4;
+        strings = new String[stringCount];
+        pos = stringDataAt + buffer.getInt(stringOffsetsAt + stringCount * 4);
+
+        int tableCount = buffer.getInt(pos);
+        pos += 4;
+        tables = new LinkedHashMap<>(tableCount * 2);
+        for (int i = 0; i < tableCount; i++) {
+            tables.put(string(buffer.getInt(pos)), new int[]{buffer.getInt(pos + 4), buffer.getInt(pos + 8)});
+            pos += 12;
+        }
+        columnsAt = pos;
+
+        schema = string(schemaIndex);
+        source = string(sourceIndex);
+    }
+
+    /**
+     * Maps a snapshot file. Cheap regardless of size; the mapping stays valid after the file is replaced
+     * because {@link #write} swaps in a new file rather than rewriting this one.
+     */
+    public static MetadataSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MetadataSnapshot(mapped);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Truncated metadata snapshot: " + file, e);
+        }
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public String schema() {
+        return schema;
+    }
+
+    /** Where the catalog was read from (JDBC URL without credentials), for display only. */
+    public String source() {
+        return source;
+    }
+
+    public List<String> tableNames() {
+        return List.copyOf(tables.keySet());
+    }
+
+    public int tableCount() {
+        return tables.size();
+    }
+
+    /**
+     * @return the table's columns, or null if the snapshot does not contain it. Names match exactly
+     *         first, then case-insensitively (Oracle stores upper case, users type lower case).
+     */
+    public List<ColumnMeta> getColumns(String table) {
+        int[] entry = tables.get(table);
+        if (entry == null) {
+            for (Map.Entry<String, int[]> candidate : tables.entrySet()) {
+                if (candidate.getKey().equalsIgnoreCase(table)) {
+                    entry = candidate.getValue();
+                    break;
+                }
+            }
+        }
+        return entry == null ? null : readColumns(entry[0], entry[1]);
+    }
+
+    /**
+     * @return every table, in export order
+     */
+    public Map<String, List<ColumnMeta>> getAll() {
+        Map<String, List<ColumnMeta>> all = new LinkedHashMap<>(tables.size() * 2);
+        tables.forEach((name, entry) -> all.put(name, readColumns(entry[0], entry[1])));
+        return all;
+    }
+
+    private List<ColumnMeta> readColumns(int count, int first) {
+        List<ColumnMeta> columns = new ArrayList<>(count);
+        int pos = columnsAt + first * COLUMN_RECORD_BYTES;
+        for (int i = 0; i < count; i++) {
+            byte flags = buffer.get(pos + 12);
+            columns.add(new ColumnMeta(
+                string(buffer.getInt(pos)),
+                string(buffer.getInt(pos + 4)),
+                (flags & FLAG_NULLABLE) != 0,
+                (flags & FLAG_KEY) != 0,
+                string(buffer.getInt(pos + 8)),
+                buffer.getInt(pos + 13)
+            ));
+            pos += COLUMN_RECORD_BYTES;
+        }
+        return Collections.unmodifiableList(columns);
+    }
+
+    // Decoded on first use; racing threads decode the same immutable value, which is harmless
+    private String string(int index) {
+        if (index < 0) {
+            return null;
+        }
+        String value = strings[index];
+        if (value == null) {
+            int start = buffer.getInt(stringOffsetsAt + index * 4);
+            int end = buffer.getInt(stringOffsetsAt + (index + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            buffer.get(stringDataAt + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Writes a snapshot atomically: the data goes to a temporary file that then replaces {@code file},
+     * so readers never map a half-written snapshot.
+     *
+     * @param source free-form origin shown to users; must not contain credentials
+     */
+    public static void write(Path file, String schema, String source, Map<String, List<ColumnMeta>> tables) throws IOException {
+        // 1. De-duplicate strings: types and common column names repeat across tables
+        StringTable strings = new StringTable();
+        int schemaIndex = strings.indexOf(schema);
+        int sourceIndex = strings.indexOf(source);
+        for (Map.Entry<String, List<ColumnMeta>> table : tables.entrySet()) {
+            strings.indexOf(table.getKey());
+            for (ColumnMeta col : table.getValue()) {
+                strings.indexOf(col.name());
+                strings.indexOf(col.type());
+                strings.indexOf(col.comment());
+            }
+        }
+
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream os = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024))) {
+                // 2. Header
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(schemaIndex);
+                out.writeInt(sourceIndex);
+
+                // 3. String table
+                out.writeInt(strings.values.size());
+                int offset = 0;
+                for (byte[] value : strings.values) {
+                    out.writeInt(offset);
+                    offset += value.length;
+                }
+                out.writeInt(offset);
+                for (byte[] value : strings.values) {
+                    out.write(value);
+                }
+
+                // 4. Table directory, then fixed-size column records
+                out.writeInt(tables.size());
+                int firstColumn = 0;
+                for (Map.Entry<String, List<ColumnMeta>> table : tables.entrySet()) {
+                    out.writeInt(strings.indexOf(table.getKey()));
+                    out.writeInt(table.getValue().size());
+                    out.writeInt(firstColumn);
+                    firstColumn += table.getValue().size();
+                }
+                for (List<ColumnMeta> columns : tables.values()) {
+                    for (ColumnMeta col : columns) {
+                        out.writeInt(strings.indexOf(col.name()));
+                        out.writeInt(strings.indexOf(col.type()));
+                        out.writeInt(strings.indexOf(col.comment()));
+                        out.writeByte((col.isNullable() ? FLAG_NULLABLE : 0) | (col.isKey() ? FLAG_KEY : 0));
+                        out.writeInt(col.ordinalPosition());
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Strips "user:password@" and password parameters from a JDBC URL before it is stored as a source.
+     */
+    public static String describeSource(String jdbcUrl) {
+        if (jdbcUrl == null) {
+            return null;
+        }
+        String cleaned = jdbcUrl.replaceAll("//[^/@]*@", "//");
+        int query = cleaned.indexOf('?');
+        if (query >= 0 && cleaned.toLowerCase(Locale.ROOT).indexOf("password", query) >= 0) {
+            cleaned = cleaned.substring(0, query);
+        }
+        return cleaned;
+    }
+
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+
+        int indexOf(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                index = values.size();
+                indexes.put(value, index);
+                values.add(value.getBytes(StandardCharsets.UTF_8));
+            }
+            return index;
+        }
+    }
+}
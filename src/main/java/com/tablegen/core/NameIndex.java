@@ -0,0 +1,128 @@
+package com.tablegen.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Table and column names of one schema, sorted for case-insensitive prefix search.
+ *
+ * Immutable once built: a lookup is a binary search over a sorted array plus a scan of the matches,
+ * so it costs microseconds and never touches the database. Rebuild it to pick up catalog changes.
+ */
+public final class NameIndex {
+
+    /**
+     * A table match has a null column; a column match names its table.
+     */
+    public record Match(String table, String column) {}
+
+    // Parallel arrays sorted by key: lower-cased name, then the original names for the result
+    private final String[] tableKeys;
+    private final String[] tables;
+    private final String[] columnKeys;
+    private final Match[] columns;
+
+    private NameIndex(String[] tableKeys, String[] tables, String[] columnKeys, Match[] columns) {
+        this.tableKeys = tableKeys;
+        this.tables = tables;
+        this.columnKeys = columnKeys;
+        this.columns = columns;
+    }
+
+    /**
+     * Indexes the tables of a schema-wide read, e.g. {@link MetaReader#getColumnsBySchema(String)}.
+     */
+    public static NameIndex of(Map<String, List<ColumnMeta>> tables) {
+        List<Match> tableEntries = new ArrayList<>(tables.size());
+        List<Match> columnEntries = new ArrayList<>();
+        for (Map.Entry<String, List<ColumnMeta>> entry : tables.entrySet()) {
+            tableEntries.add(new Match(entry.getKey(), null));
+            for (ColumnMeta col : entry.getValue()) {
+                columnEntries.add(new Match(entry.getKey(), col.name()));
+            }
+        }
+
+        Match[] sortedTables = sorted(tableEntries, Match::table);
+        Match[] sortedColumns = sorted(columnEntries, Match::column);
+        return new NameIndex(
+                keys(sortedTables, Match::table),
+                Arrays.stream(sortedTables).map(Match::table).toArray(String[]::new),
+                keys(sortedColumns, Match::column),
+                sortedColumns);
+    }
+
+    /**
+     * Up to {@code limit} table names starting with the prefix, ignoring case, in name order.
+     */
+    public List<String> tables(String prefix, int limit) {
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        String key = key(prefix);
+        for (int i = lowerBound(tableKeys, key); i < tableKeys.length && result.size() < limit && tableKeys[i].startsWith(key); i++) {
+            result.add(tables[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Up to {@code limit} columns whose name starts with the prefix, ignoring case, with their table.
+     */
+    public List<Match> columns(String prefix, int limit) {
+        List<Match> result = new ArrayList<>(Math.min(limit, 16));
+        String key = key(prefix);
+        for (int i = lowerBound(columnKeys, key); i < columnKeys.length && result.size() < limit && columnKeys[i].startsWith(key); i++) {
+            result.add(columns[i]);
+        }
+        return result;
+    }
+
+    /**
+     * The table's name as the catalog spells it, or null if the schema has no such table.
+     */
+    public String table(String name) {
+        String key = key(name);
+        int i = lowerBound(tableKeys, key);
+        return i < tableKeys.length && tableKeys[i].equals(key) ? tables[i] : null;
+    }
+
+    public int tableCount() {
+        return tables.length;
+    }
+
+    public int columnCount() {
+        return columns.length;
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // First index whose key is >= the searched key
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Match[] sorted(List<Match> entries, Function<Match, String> name) {
+        return entries.stream()
+                .sorted(Comparator.comparing((Match m) -> key(name.apply(m))).thenComparing(name))
+                .toArray(Match[]::new);
+    }
+
+    private static String[] keys(Match[] entries, Function<Match, String> name) {
+        return Arrays.stream(entries).map(m -> key(name.apply(m))).toArray(String[]::new);
+    }
+}
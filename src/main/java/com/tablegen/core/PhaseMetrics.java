@@ -0,0 +1,51 @@
+package com.tablegen.core;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the phases of a generation: connect, catalog read, comment lookup and
+ * describe (query mode), filtering and rendering.
+ *
+ * Meters are registered in {@link Metrics#globalRegistry}. Spring Boot attaches the web app's
+ * registry (scraped at /actuator/prometheus) and the CLI attaches one for --profile; with no
+ * registry attached, recording does nothing.
+ */
+public final class PhaseMetrics {
+
+    public static final String CONNECT = "tablegen.connect";
+    public static final String CATALOG = "tablegen.catalog";
+    public static final String COMMENTS = "tablegen.comments";
+    public static final String DESCRIBE = "tablegen.describe";
+    public static final String FILTER = "tablegen.filter";
+    public static final String RENDER = "tablegen.render";
+    public static final String RENDER_BYTES = "tablegen.render.bytes";
+    public static final String RENDER_COLUMNS = "tablegen.render.columns";
+
+    public static final String UNKNOWN = "unknown";
+
+    private PhaseMetrics() {}
+
+    /**
+     * Records the time since {@code startNanos} (a {@link System#nanoTime()} value).
+     *
+     * @param tags alternating tag keys and values
+     */
+    public static void time(String name, long startNanos, String... tags) {
+        Timer.builder(name)
+                .tags(tags)
+                .register(Metrics.globalRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void distribution(String name, String baseUnit, double amount, String... tags) {
+        DistributionSummary.builder(name)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .register(Metrics.globalRegistry)
+                .record(amount);
+    }
+}
@@ -0,0 +1,122 @@
+package com.tablegen.core;
+
+import com.tablegen.core.dialect.Dialect;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A physical connection owned by a {@link ConnectionPool}.
+ * Callers only ever see a proxy whose close() hands the connection back to the pool.
+ */
+class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statements;
+    private volatile long lastUsedAt;
+
+    PooledConnection(ConnectionPool pool, Connection physical) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statements = new StatementCache(physical);
+        this.lastUsedAt = System.currentTimeMillis();
+    }
+
+    Connection physical() {
+        return physical;
+    }
+
+    Dialect dialect() throws SQLException {
+        return pool.dialect(physical);
+    }
+
+    /**
+     * Catalog statements prepared on this physical connection, reused by every borrower.
+     */
+    StatementCache statements() {
+        return statements;
+    }
+
+    long lastUsedAt() {
+        return lastUsedAt;
+    }
+
+    void touch() {
+        lastUsedAt = System.currentTimeMillis();
+    }
+
+    boolean isValid(int timeoutSeconds) {
+        try {
+            return !physical.isClosed() && physical.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    void closeQuietly() {
+        statements.closeAll();
+        try {
+            physical.close();
+        } catch (SQLException ignored) {
+            // Already broken, nothing left to release
+        }
+    }
+
+    /**
+     * Creates a fresh logical handle. Each borrow gets its own handle so a stale
+     * reference closed twice cannot return the connection to the pool twice.
+     */
+    Connection newHandle() {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle());
+    }
+
+    private class Handle implements InvocationHandler {
+        // Closed from whichever thread finishes with the handle, read by the others
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (closed.compareAndSet(false, true)) {
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed.get() || physical.isClosed();
+                case "isWrapperFor":
+                    if (args[0] == PooledConnection.class) return true;
+                    break;
+                case "unwrap":
+                    if (args[0] == PooledConnection.class) return PooledConnection.this;
+                    break;
+                case "toString":
+                    return "Pooled[" + physical + "]";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    break;
+            }
+
+            if (closed.get()) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.tablegen.core;
+
+import com.tablegen.core.SqlTokenizer.Token;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maps the output labels of a user query back to the physical column they come from.
+ * Walks the token stream once, following CTEs and derived tables; anything it cannot
+ * attribute (expressions, table functions) is simply left out of the result.
+ */
+public final class QueryColumnResolver {
+
+    /** Physical source of a result column. {@code table} is null when the column could not be pinned to one table. */
+    public record SourceColumn(String schema, String table, String column) {}
+
+    /**
+     * @param columns  lower-cased output label -> source column
+     * @param stars    tables, CTEs and derived tables expanded by a top-level {@code *} / {@code alias.*}
+     * @param tables   every physical table referenced anywhere in the query
+     */
+    public record Resolution(Map<String, SourceColumn> columns, List<Source> stars, Set<TableRef> tables) {
+
+        public SourceColumn lookup(String label) {
+            if (label == null) return null;
+            SourceColumn source = columns.get(label.toLowerCase(Locale.ROOT));
+            if (source != null) return source;
+            // Columns pulled in by "*" keep their own name, so a single star source pins them,
+            // following CTEs and derived tables down to the table they read
+            if (stars.size() == 1) {
+                SourceColumn starred = sourceColumn(stars.get(0), label);
+                return starred.table() != null ? starred : null;
+            }
+            return null;
+        }
+    }
+
+    // Words that end a FROM clause or can never be a table/column alias
+    private static final Set<String> RESERVED = Set.of(
+            "select", "from", "where", "group", "order", "having", "limit", "offset", "fetch", "union",
+            "intersect", "except", "minus", "window", "for", "qualify", "join", "inner", "left", "right",
+            "full", "outer", "cross", "natural", "straight_join", "on", "using", "lateral", "as", "and",
+            "or", "not", "end", "null", "when", "then", "else", "case", "distinct", "all", "with", "into");
+
+    private static final Set<String> FROM_TERMINATORS = Set.of(
+            "where", "group", "order", "having", "limit", "offset", "fetch", "union", "intersect",
+            "except", "minus", "window", "for", "qualify");
+
+    /** Something a FROM clause reads from: a physical table, or a CTE / derived table with its own output. */
+    public sealed interface Source permits PhysicalTable, Derived {}
+
+    private record PhysicalTable(TableRef ref) implements Source {}
+
+    private record Derived(Scope scope) implements Source {}
+
+    // Output of one SELECT: label -> source, plus the sources "*" expanded to
+    private record Scope(Map<String, SourceColumn> columns, List<Source> stars) {
+
+        static Scope empty() {
+            return new Scope(Map.of(), List.of());
+        }
+    }
+
+    private final List<Token> tokens;
+    private final String defaultSchema;
+    private final Set<TableRef> tables = new LinkedHashSet<>();
+
+    private QueryColumnResolver(List<Token> tokens, String defaultSchema) {
+        this.tokens = tokens;
+        this.defaultSchema = defaultSchema;
+    }
+
+    public static Resolution resolve(String sql, String defaultSchema) {
+        QueryColumnResolver resolver = new QueryColumnResolver(SqlTokenizer.tokenize(sql), defaultSchema);
+        Scope scope = resolver.parseQuery(0, resolver.tokens.size(), new HashMap<>());
+        return new Resolution(scope.columns(), scope.stars(), resolver.tables);
+    }
+
+    private Scope parseQuery(int start, int end, Map<String, Source> ctes) {
+        int i = start;
+
+        // 1. WITH name [(cols)] AS (query), ...
+        if (i < end && tok(i).isKeyword("WITH")) {
+            ctes = new HashMap<>(ctes);
+            i++;
+            if (i < end && tok(i).isKeyword("RECURSIVE")) i++;
+            while (i < end && tok(i).isIdentifier()) {
+                String name = tok(i++).text();
+                if (i < end && tok(i).isSymbol("(")) i = matching(i, end) + 1;
+                if (i < end && tok(i).isKeyword("AS")) i++;
+                while (i < end && (tok(i).isKeyword("NOT") || tok(i).isKeyword("MATERIALIZED"))) i++;
+                if (i >= end || !tok(i).isSymbol("(")) return Scope.empty();
+                int close = matching(i, end);
+                ctes.put(key(name), new Derived(parseQuery(i + 1, close, ctes)));
+                i = close + 1;
+                if (i < end && tok(i).isSymbol(",")) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        // 2. "(SELECT ...) UNION ..." - the first branch names the columns
+        if (i < end && tok(i).isSymbol("(")) {
+            return parseQuery(i + 1, matching(i, end), ctes);
+        }
+        if (i >= end || !tok(i).isKeyword("SELECT")) return Scope.empty();
+        i++;
+        i = skipSelectModifiers(i, end);
+
+        // 3. Locate the select list and FROM clause at this nesting level
+        int fromAt = findTopLevel(i, end, Set.of("from"));
+        int selectEnd = fromAt >= 0 ? fromAt : findTopLevel(i, end, FROM_TERMINATORS);
+        if (selectEnd < 0) selectEnd = end;
+
+        Map<String, Source> sources = new HashMap<>();
+        List<Source> ordered = new ArrayList<>();
+        if (fromAt >= 0) {
+            int fromEnd = findTopLevel(fromAt + 1, end, FROM_TERMINATORS);
+            parseFromItems(fromAt + 1, fromEnd < 0 ? end : fromEnd, ctes, sources, ordered);
+        }
+
+        // 4. Resolve every select item against the FROM sources
+        Map<String, SourceColumn> columns = new HashMap<>();
+        List<Source> stars = new ArrayList<>();
+        int itemStart = i;
+        for (int k = i; k <= selectEnd; k++) {
+            if (k == selectEnd || tok(k).isSymbol(",")) {
+                resolveSelectItem(itemStart, k, sources, ordered, columns, stars);
+                itemStart = k + 1;
+            } else if (tok(k).isSymbol("(")) {
+                k = matching(k, selectEnd);
+            }
+        }
+        return new Scope(columns, stars);
+    }
+
+    private int skipSelectModifiers(int i, int end) {
+        while (i < end) {
+            Token t = tok(i);
+            if (t.isKeyword("DISTINCT") || t.isKeyword("ALL") || t.isKeyword("STRAIGHT_JOIN")
+                    || (t.kind() == SqlTokenizer.Kind.WORD && t.text().toUpperCase(Locale.ROOT).startsWith("SQL_"))) {
+                i++;
+            } else if (t.isKeyword("ON") && i + 1 < end && tok(i + 1).isSymbol("(")) {
+                i = matching(i + 1, end) + 1; // Postgres DISTINCT ON (...)
+            } else if (t.isKeyword("TOP") && i + 1 < end) {
+                i += 2;
+            } else {
+                return i;
+            }
+        }
+        return i;
+    }
+
+    private void parseFromItems(int start, int end, Map<String, Source> ctes,
+                                Map<String, Source> sources, List<Source> ordered) {
+        int i = start;
+        while (i < end) {
+            if (tok(i).isKeyword("LATERAL")) i++;
+            if (i >= end) break;
+
+            Source source = null;
+            String defaultAlias = null;
+
+            if (tok(i).isSymbol("(")) {
+                int close = matching(i, end);
+                if (close > i + 1 && (tok(i + 1).isKeyword("SELECT") || tok(i + 1).isKeyword("WITH") || tok(i + 1).isSymbol("("))) {
+                    source = new Derived(parseQuery(i + 1, close, ctes));
+                } else {
+                    // Parenthesised join: its items belong to this FROM clause
+                    parseFromItems(i + 1, close, ctes, sources, ordered);
+                }
+                i = close + 1;
+            } else if (tok(i).isIdentifier()) {
+                List<String> parts = new ArrayList<>();
+                parts.add(tok(i++).text());
+                while (i + 1 < end && tok(i).isSymbol(".") && tok(i + 1).isIdentifier()) {
+                    parts.add(tok(i + 1).text());
+                    i += 2;
+                }
+                if (i < end && tok(i).isSymbol("(")) {
+                    i = matching(i, end) + 1; // Table function: columns are unknown
+                } else {
+                    String table = parts.get(parts.size() - 1);
+                    defaultAlias = table;
+                    Source cte = parts.size() == 1 ? ctes.get(key(table)) : null;
+                    if (cte != null) {
+                        source = cte;
+                    } else {
+                        String schema = parts.size() > 1 ? parts.get(parts.size() - 2) : defaultSchema;
+                        TableRef ref = new TableRef(schema, table);
+                        tables.add(ref);
+                        source = new PhysicalTable(ref);
+                    }
+                }
+            } else {
+                i++;
+                continue;
+            }
+
+            // Alias: "AS x" or a bare non-reserved identifier
+            String alias = defaultAlias;
+            if (i < end && tok(i).isKeyword("AS")) i++;
+            if (i < end && isAlias(tok(i))) {
+                alias = tok(i++).text();
+                if (i < end && tok(i).isSymbol("(")) i = matching(i, end) + 1; // alias column list
+            }
+            if (source != null) {
+                ordered.add(source);
+                if (alias != null) sources.put(key(alias), source);
+            }
+
+            // Skip ON/USING conditions up to the next item
+            while (i < end) {
+                Token t = tok(i);
+                if (t.isSymbol(",") || t.isKeyword("JOIN") || t.isKeyword("STRAIGHT_JOIN")) {
+                    i++;
+                    break;
+                }
+                i = t.isSymbol("(") ? matching(i, end) + 1 : i + 1;
+            }
+        }
+    }
+
+    private void resolveSelectItem(int start, int end, Map<String, Source> sources, List<Source> ordered,
+                                   Map<String, SourceColumn> columns, List<Source> stars) {
+        if (start >= end) return;
+
+        // 1. Split off the alias
+        String alias = null;
+        int exprEnd = end;
+        if (end - start >= 2 && tok(end - 1).isIdentifier()) {
+            if (tok(end - 2).isKeyword("AS")) {
+                alias = tok(end - 1).text();
+                exprEnd = end - 2;
+            } else if (isAlias(tok(end - 1)) && !tok(end - 2).isSymbol(".") && isExpressionEnd(tok(end - 2))) {
+                alias = tok(end - 1).text();
+                exprEnd = end - 1;
+            }
+        } else if (end - start >= 2 && tok(end - 1).kind() == SqlTokenizer.Kind.STRING && tok(end - 2).isKeyword("AS")) {
+            String raw = tok(end - 1).text();
+            alias = raw.substring(1, Math.max(1, raw.length() - 1));
+            exprEnd = end - 2;
+        }
+
+        // 2. "*" and "q.*"
+        int length = exprEnd - start;
+        if (length == 1 && tok(start).isSymbol("*")) {
+            stars.addAll(ordered);
+            return;
+        }
+        if (length == 3 && tok(start).isIdentifier() && tok(start + 1).isSymbol(".") && tok(start + 2).isSymbol("*")) {
+            Source source = sources.get(key(tok(start).text()));
+            if (source != null) stars.add(source);
+            return;
+        }
+
+        // 3. Plain column reference: col, q.col or schema.table.col
+        String qualifier = null;
+        String column = null;
+        if (length == 1 && tok(start).isIdentifier()) {
+            column = tok(start).text();
+        } else if (isDottedReference(start, exprEnd)) {
+            qualifier = tok(exprEnd - 3).text();
+            column = tok(exprEnd - 1).text();
+        } else {
+            // Function call: attribute it only when it wraps exactly one qualified column, e.g. IFNULL(u.name, '')
+            boolean functionCall = alias != null && length >= 3 && tok(start).kind() == SqlTokenizer.Kind.WORD
+                    && tok(start + 1).isSymbol("(") && matching(start + 1, exprEnd) == exprEnd - 1;
+            if (!functionCall) return;
+            int found = 0;
+            for (int k = start; k + 2 < exprEnd; k++) {
+                if (tok(k).isIdentifier() && tok(k + 1).isSymbol(".") && tok(k + 2).isIdentifier()
+                        && (k + 3 >= exprEnd || !tok(k + 3).isSymbol("(") && !tok(k + 3).isSymbol("."))
+                        && (k == start || !tok(k - 1).isSymbol("."))) {
+                    qualifier = tok(k).text();
+                    column = tok(k + 2).text();
+                    found++;
+                }
+            }
+            if (found != 1) return;
+        }
+
+        String label = alias != null ? alias : column;
+        Source source = qualifier != null ? sources.get(key(qualifier)) : ordered.size() == 1 ? ordered.get(0) : null;
+        columns.put(key(label), sourceColumn(source, column));
+    }
+
+    private boolean isDottedReference(int start, int end) {
+        int length = end - start;
+        if (length != 3 && length != 5) return false;
+        for (int k = start; k < end; k++) {
+            boolean identifierSlot = (k - start) % 2 == 0;
+            if (identifierSlot ? !tok(k).isIdentifier() : !tok(k).isSymbol(".")) return false;
+        }
+        return true;
+    }
+
+    private static SourceColumn sourceColumn(Source source, String column) {
+        if (source instanceof PhysicalTable t) {
+            return new SourceColumn(t.ref().schema(), t.ref().table(), column);
+        }
+        if (source instanceof Derived d) {
+            SourceColumn inner = d.scope().columns().get(key(column));
+            if (inner != null) return inner;
+            if (d.scope().stars().size() == 1) return sourceColumn(d.scope().stars().get(0), column);
+        }
+        return new SourceColumn(null, null, column);
+    }
+
+    private static boolean isAlias(Token t) {
+        return t.kind() == SqlTokenizer.Kind.QUOTED_IDENTIFIER
+                || (t.kind() == SqlTokenizer.Kind.WORD && !RESERVED.contains(key(t.text())));
+    }
+
+    // A bare trailing identifier is an alias only if the token before it can end an expression
+    private static boolean isExpressionEnd(Token t) {
+        return t.isIdentifier() || t.isSymbol(")") || t.kind() == SqlTokenizer.Kind.STRING
+                || t.kind() == SqlTokenizer.Kind.NUMBER || t.isKeyword("END");
+    }
+
+    private int findTopLevel(int start, int end, Set<String> keywords) {
+        for (int i = start; i < end; i++) {
+            Token t = tok(i);
+            if (t.isSymbol("(")) {
+                i = matching(i, end);
+            } else if (t.kind() == SqlTokenizer.Kind.WORD && keywords.contains(key(t.text()))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Index of the ")" closing the "(" at open, or end - 1 if unbalanced
+    private int matching(int open, int end) {
+        int depth = 0;
+        for (int i = open; i < end; i++) {
+            if (tok(i).isSymbol("(")) {
+                depth++;
+            } else if (tok(i).isSymbol(")") && --depth == 0) {
+                return i;
+            }
+        }
+        return end - 1;
+    }
+
+    private Token tok(int i) {
+        return tokens.get(i);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
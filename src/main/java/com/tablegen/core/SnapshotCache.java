@@ -0,0 +1,31 @@
+package com.tablegen.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps snapshot files mapped between generations and re-opens one only when it changes on disk.
+ */
+public class SnapshotCache {
+
+    private record Cached(MetadataSnapshot snapshot, FileTime modified, long size) {}
+
+    private final ConcurrentHashMap<Path, Cached> snapshots = new ConcurrentHashMap<>();
+
+    public MetadataSnapshot get(Path file) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        FileTime modified = Files.getLastModifiedTime(key);
+        long size = Files.size(key);
+
+        Cached cached = snapshots.get(key);
+        if (cached != null && cached.modified().equals(modified) && cached.size() == size) {
+            return cached.snapshot();
+        }
+        MetadataSnapshot snapshot = MetadataSnapshot.open(key);
+        snapshots.put(key, new Cached(snapshot, modified, size));
+        return snapshot;
+    }
+}
@@ -0,0 +1,126 @@
+package com.tablegen.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits SQL into words, quoted identifiers, literals and symbols in one pass.
+ * Whitespace and comments are dropped. Only as much SQL as query-mode metadata needs is understood;
+ * this is not a validating parser.
+ */
+public final class SqlTokenizer {
+
+    public enum Kind { WORD, QUOTED_IDENTIFIER, STRING, NUMBER, SYMBOL }
+
+    /**
+     * @param text identifier text without quotes for WORD/QUOTED_IDENTIFIER, raw text otherwise
+     */
+    public record Token(Kind kind, String text) {
+
+        public boolean isKeyword(String keyword) {
+            return kind == Kind.WORD && text.equalsIgnoreCase(keyword);
+        }
+
+        public boolean isSymbol(String symbol) {
+            return kind == Kind.SYMBOL && text.equals(symbol);
+        }
+
+        public boolean isIdentifier() {
+            return kind == Kind.WORD || kind == Kind.QUOTED_IDENTIFIER;
+        }
+    }
+
+    private SqlTokenizer() {}
+
+    public static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        int n = sql.length();
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < n && sql.charAt(i + 1) == '-') {
+                i = skipLine(sql, i);
+            } else if (c == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+                int close = sql.indexOf("*/", i + 2);
+                i = close < 0 ? n : close + 2;
+            } else if (c == '\'') {
+                int end = quotedEnd(sql, i, '\'', true);
+                tokens.add(new Token(Kind.STRING, sql.substring(i, end)));
+                i = end;
+            } else if (c == '"' || c == '`') {
+                int end = quotedEnd(sql, i, c, false);
+                tokens.add(new Token(Kind.QUOTED_IDENTIFIER, unquote(sql.substring(i + 1, Math.max(i + 1, end - 1)), c)));
+                i = end;
+            } else if (c == '[') {
+                int close = sql.indexOf(']', i + 1);
+                int end = close < 0 ? n : close + 1;
+                tokens.add(new Token(Kind.QUOTED_IDENTIFIER, sql.substring(i + 1, Math.max(i + 1, end - 1))));
+                i = end;
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < n && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+                tokens.add(new Token(Kind.NUMBER, sql.substring(start, i)));
+            } else if (isIdentifierStart(c)) {
+                int start = i;
+                while (i < n && isIdentifierPart(sql.charAt(i))) i++;
+                tokens.add(new Token(Kind.WORD, sql.substring(start, i)));
+            } else {
+                // Two-character operators are kept together so "::" or "<=" never look like two tokens
+                if (i + 1 < n && isTwoCharOperator(c, sql.charAt(i + 1))) {
+                    tokens.add(new Token(Kind.SYMBOL, sql.substring(i, i + 2)));
+                    i += 2;
+                } else {
+                    tokens.add(new Token(Kind.SYMBOL, String.valueOf(c)));
+                    i++;
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static int skipLine(String sql, int i) {
+        int eol = sql.indexOf('\n', i);
+        return eol < 0 ? sql.length() : eol + 1;
+    }
+
+    // Returns the index just past the closing quote; doubled quotes are escapes
+    private static int quotedEnd(String sql, int open, char quote, boolean backslashEscapes) {
+        int i = open + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            if (backslashEscapes && c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return sql.length();
+    }
+
+    private static String unquote(String body, char quote) {
+        String doubled = String.valueOf(quote) + quote;
+        return body.contains(doubled) ? body.replace(doubled, String.valueOf(quote)) : body;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$' || c == '@';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    private static boolean isTwoCharOperator(char a, char b) {
+        return (a == ':' && b == ':') || (a == '<' && (b == '=' || b == '>')) || (a == '>' && b == '=')
+                || (a == '!' && b == '=') || (a == '|' && b == '|');
+    }
+}
@@ -0,0 +1,56 @@
+package com.tablegen.core;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prepared statements kept open on one physical connection, keyed by SQL text, LRU bounded.
+ * A pooled connection has a single borrower at a time, so a cached statement is never shared
+ * concurrently; the lock only guards the map.
+ */
+class StatementCache {
+
+    // Catalog SQL comes in a handful of fixed shapes per dialect
+    private static final int MAX_STATEMENTS = 16;
+
+    private final Connection physical;
+    private final LinkedHashMap<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection physical) {
+        this.physical = physical;
+    }
+
+    synchronized PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement ps = statements.get(sql);
+        if (ps != null && !ps.isClosed()) {
+            ps.clearParameters();
+            return ps;
+        }
+
+        ps = physical.prepareStatement(sql);
+        statements.put(sql, ps);
+        if (statements.size() > MAX_STATEMENTS) {
+            Iterator<Map.Entry<String, PreparedStatement>> eldest = statements.entrySet().iterator();
+            closeQuietly(eldest.next().getValue());
+            eldest.remove();
+        }
+        return ps;
+    }
+
+    synchronized void closeAll() {
+        statements.values().forEach(StatementCache::closeQuietly);
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+            // The connection is going away or the statement is already unusable
+        }
+    }
+}
@@ -1,20 +1,76 @@
 package com.tablegen.core;
 
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class StringUtils {
 
+    // Column names repeat across tables (reg_date, user_id, ...), so labels are memoized.
+    // Cleared wholesale when full: cheap, and the hot names are back after one table.
+    private static final int LABEL_CACHE_MAX = 4096;
+    private static final ConcurrentHashMap<String, String> LABEL_CACHE = new ConcurrentHashMap<>();
+
     public static String humanize(String input) {
         if (input == null || input.isEmpty()) {
             return input;
         }
 
+        String cached = LABEL_CACHE.get(input);
+        if (cached != null) {
+            return cached;
+        }
+
+        String label = isAscii(input) ? humanizeAscii(input) : humanizeGeneric(input);
+        if (LABEL_CACHE.size() >= LABEL_CACHE_MAX) {
+            LABEL_CACHE.clear();
+        }
+        LABEL_CACHE.put(input, label);
+        return label;
+    }
+
+    /**
+     * Single pass over the characters: '_' and whitespace separate words, a lower-case letter
+     * followed by an upper-case one starts a new word (camelCase), and each word is emitted
+     * with its first character upper-cased and the rest lower-cased.
+     */
+    private static String humanizeAscii(String input) {
+        StringBuilder sb = new StringBuilder(input.length() + 8);
+        boolean atWordStart = true;
+        char prev = 0;
+
+        for (int i = 0; i < input.length(); i++) {
+            char c = input.charAt(i);
+            if (c == '_' || isRegexWhitespace(c)) {
+                atWordStart = true;
+                prev = ' ';
+                continue;
+            }
+            if (prev >= 'a' && prev <= 'z' && c >= 'A' && c <= 'Z') {
+                atWordStart = true;
+            }
+
+            if (atWordStart) {
+                if (sb.length() > 0) {
+                    sb.append(' ');
+                }
+                sb.append(Character.toUpperCase(c));
+                atWordStart = false;
+            } else {
+                sb.append(Character.toLowerCase(c));
+            }
+            prev = c;
+        }
+        return sb.toString();
+    }
+
+    // Original regex-based implementation, kept for non-ASCII names where
+    // locale-sensitive String case mapping can differ from per-char mapping.
+    private static String humanizeGeneric(String input) {
         // Replace underscores with spaces
         String text = input.replace('_', ' ');
 
         // Insert space before capital letters in camelCase (e.g. "regDate" -> "reg Date")
-        // But avoid doing it for acronyms if possible, though simple regex approach is usually:
         text = text.replaceAll("([a-z])([A-Z]+)", "$1 $2");
 
         // Capitalize words
@@ -23,4 +79,18 @@ public class StringUtils {
                 .map(s -> Character.toUpperCase(s.charAt(0)) + s.substring(1).toLowerCase())
                 .collect(Collectors.joining(" "));
     }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same set as the regex \s
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
 }
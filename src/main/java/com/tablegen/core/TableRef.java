@@ -0,0 +1,17 @@
+package com.tablegen.core;
+
+/**
+ * A schema-qualified table name. Accepts the "schema.table" notation in the table part.
+ */
+public record TableRef(String schema, String table) {
+
+    public static TableRef of(String schema, String table) {
+        if (table != null && table.contains(".")) {
+            String[] parts = table.split("\\.");
+            if (parts.length == 2) {
+                return new TableRef(parts[0], parts[1]);
+            }
+        }
+        return new TableRef(schema, table);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tablegen.core.dialect;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Database-specific catalog SQL used by {@link com.tablegen.core.MetaReader}.
+ * Implementations are discovered with {@link java.util.ServiceLoader} (see {@link Dialects}), so a
+ * dialect for another database can ship in its own jar next to its JDBC driver.
+ *
+ * Catalog queries return TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE, COLUMN_KEY ('PRI' for
+ * primary key columns), COLUMN_COMMENT and ORDINAL_POSITION; comment queries return TABLE_SCHEMA,
+ * TABLE_NAME, COLUMN_NAME and COLUMN_COMMENT.
+ */
+public interface Dialect {
+
+    String name();
+
+    /**
+     * @param productName lower-cased {@code DatabaseMetaData.getDatabaseProductName()}
+     */
+    boolean supports(String productName);
+
+    /** JDBC URL prefixes (such as "jdbc:mariadb:") served by {@link #driverClassName()}. */
+    List<String> urlPrefixes();
+
+    /** Driver class loaded on demand, only when a URL of this dialect is first used. */
+    String driverClassName();
+
+    /** The URL as handed to the driver, e.g. with options the driver needs to accept one of {@link #urlPrefixes()}. */
+    default String driverUrl(String url) {
+        return url;
+    }
+
+    /**
+     * Driver properties bounding how long opening a connection and waiting on its socket may take.
+     *
+     * @param socketTimeoutSeconds 0 for no socket timeout
+     */
+    default Properties connectionProperties(int connectTimeoutSeconds, int socketTimeoutSeconds) {
+        return new Properties();
+    }
+
+    /** Catalog query ending in a "schema = ?" condition, without ORDER BY. */
+    String catalogBaseSql();
+
+    /** Column holding the table name in {@link #catalogBaseSql()}, used for filtering and ordering. */
+    String catalogTableColumn();
+
+    String catalogOrdinalColumn();
+
+    /** Comment query ending in "WHERE ", followed by one {@link #commentsPredicate()} per table. */
+    String commentsBaseSql();
+
+    /** Matches one table; binds schema then table. */
+    String commentsPredicate();
+
+    /** COLUMN_NAME, COLUMN_COMMENT for every column of a schema; binds schema. */
+    String schemaCommentsSql();
+
+    /** Single value that changes whenever a table's definition changes; binds schema then table. */
+    String changeMarkerSql();
+
+    /** TABLE_NAME, MARKER for every table of a schema, using the same marker as {@link #changeMarkerSql()}; binds schema. */
+    String schemaChangeMarkersSql();
+
+    /**
+     * Wrapper queries tried, in order, when the driver cannot describe a query without executing it.
+     */
+    List<String> describeFallbacks(String query);
+
+    /**
+     * Converts an unquoted identifier taken from SQL text to the case the catalog stores it in.
+     */
+    default String catalogIdentifier(String identifier) {
+        return identifier;
+    }
+
+    /**
+     * @param tableCount 0 for the whole schema, otherwise the number of table name parameters
+     */
+    default String catalogSql(int tableCount) {
+        StringBuilder sb = new StringBuilder(catalogBaseSql().stripTrailing());
+        if (tableCount == 1) {
+            sb.append(" AND ").append(catalogTableColumn()).append(" = ?");
+        } else if (tableCount > 1) {
+            sb.append(" AND ").append(catalogTableColumn()).append(" IN (")
+              .append(String.join(", ", Collections.nCopies(tableCount, "?")))
+              .append(")");
+        }
+        sb.append(" ORDER BY ").append(catalogTableColumn()).append(", ").append(catalogOrdinalColumn());
+        return sb.toString();
+    }
+
+    default String commentsSql(int tableCount) {
+        return commentsBaseSql() + String.join(" OR ", Collections.nCopies(tableCount, commentsPredicate()));
+    }
+}
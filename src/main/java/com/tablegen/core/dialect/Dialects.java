@@ -0,0 +1,67 @@
+package com.tablegen.core.dialect;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the {@link Dialect} implementations found on the classpath, loaded once.
+ */
+public final class Dialects {
+
+    private static final List<Dialect> DIALECTS = load();
+    private static final Dialect FALLBACK = new MySqlDialect();
+
+    private Dialects() {}
+
+    /**
+     * Picks the dialect for a connection. Costs one metadata call, so callers cache the result
+     * per connection or pool.
+     */
+    public static Dialect detect(Connection connection) throws SQLException {
+        return forProductName(connection.getMetaData().getDatabaseProductName());
+    }
+
+    public static Dialect forProductName(String productName) {
+        String name = productName == null ? "" : productName.toLowerCase(Locale.ROOT);
+        for (Dialect dialect : DIALECTS) {
+            if (dialect.supports(name)) {
+                return dialect;
+            }
+        }
+        return FALLBACK;
+    }
+
+    /**
+     * @return the dialect whose driver accepts this URL, or null for databases without a dialect
+     */
+    public static Dialect forUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        String lower = url.toLowerCase(Locale.ROOT);
+        for (Dialect dialect : DIALECTS) {
+            for (String prefix : dialect.urlPrefixes()) {
+                if (lower.startsWith(prefix)) {
+                    return dialect;
+                }
+            }
+        }
+        return null;
+    }
+
+    public static List<Dialect> all() {
+        return DIALECTS;
+    }
+
+    private static List<Dialect> load() {
+        List<Dialect> dialects = new ArrayList<>();
+        for (Dialect dialect : ServiceLoader.load(Dialect.class, Dialect.class.getClassLoader())) {
+            dialects.add(dialect);
+        }
+        return List.copyOf(dialects);
+    }
+}
@@ -0,0 +1,121 @@
+package com.tablegen.core.dialect;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * MySQL and MariaDB. Also the fallback for unrecognised databases, as before dialects existed.
+ */
+public class MySqlDialect implements Dialect {
+
+    @Override
+    public String name() {
+        return "mysql";
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.contains("mysql") || productName.contains("mariadb");
+    }
+
+    @Override
+    public List<String> urlPrefixes() {
+        return List.of("jdbc:mariadb:", "jdbc:mysql:");
+    }
+
+    @Override
+    public String driverClassName() {
+        return "org.mariadb.jdbc.Driver";
+    }
+
+    /**
+     * MariaDB Connector/J 3.x only accepts jdbc:mysql: URLs that carry the permitMysqlScheme option,
+     * and checks the URL itself rather than the connection properties, so the option is appended there.
+     */
+    @Override
+    public String driverUrl(String url) {
+        if (!url.startsWith("jdbc:mysql:") || url.contains("permitMysqlScheme")) {
+            return url;
+        }
+        return url + (url.indexOf('?') >= 0 ? "&" : "?") + "permitMysqlScheme";
+    }
+
+    @Override
+    public Properties connectionProperties(int connectTimeoutSeconds, int socketTimeoutSeconds) {
+        // MariaDB Connector/J, also used for jdbc:mysql: URLs; both values in milliseconds
+        Properties props = new Properties();
+        props.setProperty("connectTimeout", Long.toString(connectTimeoutSeconds * 1000L));
+        if (socketTimeoutSeconds > 0) {
+            props.setProperty("socketTimeout", Long.toString(socketTimeoutSeconds * 1000L));
+        }
+        return props;
+    }
+
+    @Override
+    public String catalogBaseSql() {
+        // COLUMN_TYPE and COLUMN_KEY are MySQL extensions of information_schema
+        return """
+            SELECT TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE, COLUMN_KEY, COLUMN_COMMENT, ORDINAL_POSITION
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = ?
+        """;
+    }
+
+    @Override
+    public String catalogTableColumn() {
+        return "TABLE_NAME";
+    }
+
+    @Override
+    public String catalogOrdinalColumn() {
+        return "ORDINAL_POSITION";
+    }
+
+    @Override
+    public String commentsBaseSql() {
+        return "SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, COLUMN_COMMENT FROM information_schema.COLUMNS WHERE ";
+    }
+
+    @Override
+    public String commentsPredicate() {
+        return "(TABLE_SCHEMA = ? AND TABLE_NAME = ?)";
+    }
+
+    @Override
+    public String schemaCommentsSql() {
+        return "SELECT COLUMN_NAME, COLUMN_COMMENT FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ?";
+    }
+
+    @Override
+    public String changeMarkerSql() {
+        // A checksum over the column definitions as rendered. information_schema.TABLES timestamps miss
+        // instant ALTERs and comment-only changes, and MySQL 8 caches them for information_schema_stats_expiry
+        // (24 h by default); COLUMNS comes from the data dictionary every time. Per-column MD5s are summed
+        // rather than GROUP_CONCATed, which group_concat_max_len would silently truncate.
+        return """
+            SELECT CONCAT(COUNT(*), ':', IFNULL(SUM(CONV(LEFT(MD5(CONCAT_WS('|', ORDINAL_POSITION, COLUMN_NAME,
+                COLUMN_TYPE, IS_NULLABLE, COLUMN_KEY, IFNULL(COLUMN_COMMENT, ''))), 15), 16, 10)), 0))
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?
+        """;
+    }
+
+    @Override
+    public String schemaChangeMarkersSql() {
+        return """
+            SELECT TABLE_NAME, CONCAT(COUNT(*), ':', IFNULL(SUM(CONV(LEFT(MD5(CONCAT_WS('|', ORDINAL_POSITION, COLUMN_NAME,
+                COLUMN_TYPE, IS_NULLABLE, COLUMN_KEY, IFNULL(COLUMN_COMMENT, ''))), 15), 16, 10)), 0)) AS MARKER
+            FROM information_schema.COLUMNS
+            WHERE TABLE_SCHEMA = ?
+            GROUP BY TABLE_NAME
+        """;
+    }
+
+    @Override
+    public List<String> describeFallbacks(String query) {
+        return List.of(
+            "SELECT * FROM (" + query + ") AS _wrapper_table LIMIT 0",
+            "SELECT * FROM (" + query + ") AS _wrapper_table WHERE 1=0"
+        );
+    }
+}
@@ -0,0 +1,129 @@
+package com.tablegen.core.dialect;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Oracle. Schemas are owners; primary keys come from ALL_CONSTRAINTS, comments from ALL_COL_COMMENTS.
+ */
+public class OracleDialect implements Dialect {
+
+    @Override
+    public String name() {
+        return "oracle";
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.contains("oracle");
+    }
+
+    @Override
+    public List<String> urlPrefixes() {
+        return List.of("jdbc:oracle:");
+    }
+
+    @Override
+    public String driverClassName() {
+        return "oracle.jdbc.OracleDriver";
+    }
+
+    @Override
+    public Properties connectionProperties(int connectTimeoutSeconds, int socketTimeoutSeconds) {
+        // Thin driver, milliseconds; CONNECT_TIMEOUT bounds reaching the listener, ReadTimeout every socket read
+        Properties props = new Properties();
+        props.setProperty("oracle.net.CONNECT_TIMEOUT", Long.toString(connectTimeoutSeconds * 1000L));
+        if (socketTimeoutSeconds > 0) {
+            props.setProperty("oracle.jdbc.ReadTimeout", Long.toString(socketTimeoutSeconds * 1000L));
+        }
+        return props;
+    }
+
+    @Override
+    public String catalogBaseSql() {
+        return """
+            SELECT 
+                t.TABLE_NAME,
+                t.COLUMN_NAME, 
+                t.DATA_TYPE as COLUMN_TYPE, 
+                t.NULLABLE as IS_NULLABLE, 
+                CASE WHEN pk.COLUMN_NAME IS NOT NULL THEN 'PRI' END as COLUMN_KEY, 
+                c.COMMENTS as COLUMN_COMMENT, 
+                t.COLUMN_ID as ORDINAL_POSITION
+            FROM ALL_TAB_COLUMNS t
+            LEFT JOIN ALL_COL_COMMENTS c 
+                ON t.OWNER = c.OWNER 
+                AND t.TABLE_NAME = c.TABLE_NAME 
+                AND t.COLUMN_NAME = c.COLUMN_NAME
+            LEFT JOIN (
+                SELECT cc.OWNER, cc.TABLE_NAME, cc.COLUMN_NAME
+                FROM ALL_CONSTRAINTS k
+                JOIN ALL_CONS_COLUMNS cc
+                    ON cc.OWNER = k.OWNER
+                    AND cc.CONSTRAINT_NAME = k.CONSTRAINT_NAME
+                WHERE k.CONSTRAINT_TYPE = 'P'
+            ) pk
+                ON pk.OWNER = t.OWNER
+                AND pk.TABLE_NAME = t.TABLE_NAME
+                AND pk.COLUMN_NAME = t.COLUMN_NAME
+            WHERE t.OWNER = ?
+        """;
+    }
+
+    @Override
+    public String catalogTableColumn() {
+        return "t.TABLE_NAME";
+    }
+
+    @Override
+    public String catalogOrdinalColumn() {
+        return "t.COLUMN_ID";
+    }
+
+    @Override
+    public String commentsBaseSql() {
+        return "SELECT OWNER as TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, COMMENTS as COLUMN_COMMENT FROM ALL_COL_COMMENTS WHERE ";
+    }
+
+    @Override
+    public String commentsPredicate() {
+        return "(OWNER = ? AND TABLE_NAME = ?)";
+    }
+
+    @Override
+    public String schemaCommentsSql() {
+        return "SELECT COLUMN_NAME, COMMENTS as COLUMN_COMMENT FROM ALL_COL_COMMENTS WHERE OWNER = ?";
+    }
+
+    @Override
+    public String changeMarkerSql() {
+        return """
+            SELECT TO_CHAR(MAX(LAST_DDL_TIME), 'YYYYMMDDHH24MISS')
+            FROM ALL_OBJECTS
+            WHERE OWNER = ? AND OBJECT_NAME = ? AND OBJECT_TYPE IN ('TABLE', 'VIEW')
+        """;
+    }
+
+    @Override
+    public String schemaChangeMarkersSql() {
+        return """
+            SELECT OBJECT_NAME AS TABLE_NAME, TO_CHAR(MAX(LAST_DDL_TIME), 'YYYYMMDDHH24MISS') AS MARKER
+            FROM ALL_OBJECTS
+            WHERE OWNER = ? AND OBJECT_TYPE IN ('TABLE', 'VIEW')
+            GROUP BY OBJECT_NAME
+        """;
+    }
+
+    @Override
+    public List<String> describeFallbacks(String query) {
+        // Oracle rejects "AS" before a table alias
+        return List.of("SELECT * FROM (" + query + ") WHERE 1=0");
+    }
+
+    @Override
+    public String catalogIdentifier(String identifier) {
+        // Unquoted identifiers are stored upper case
+        return identifier.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,144 @@
+package com.tablegen.core.dialect;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * PostgreSQL. Comments come from pg_description via col_description(); in information_schema the
+ * ordinal position equals attnum, which is what col_description() expects.
+ */
+public class PostgresDialect implements Dialect {
+
+    @Override
+    public String name() {
+        return "postgresql";
+    }
+
+    @Override
+    public boolean supports(String productName) {
+        return productName.contains("postgresql");
+    }
+
+    @Override
+    public List<String> urlPrefixes() {
+        return List.of("jdbc:postgresql:");
+    }
+
+    @Override
+    public String driverClassName() {
+        return "org.postgresql.Driver";
+    }
+
+    @Override
+    public Properties connectionProperties(int connectTimeoutSeconds, int socketTimeoutSeconds) {
+        // pgJDBC takes seconds; loginTimeout also covers authentication after the socket is open
+        Properties props = new Properties();
+        props.setProperty("connectTimeout", Integer.toString(connectTimeoutSeconds));
+        props.setProperty("loginTimeout", Integer.toString(connectTimeoutSeconds));
+        if (socketTimeoutSeconds > 0) {
+            props.setProperty("socketTimeout", Integer.toString(socketTimeoutSeconds));
+        }
+        return props;
+    }
+
+    @Override
+    public String catalogBaseSql() {
+        return """
+            SELECT 
+                c.table_name as TABLE_NAME,
+                c.column_name as COLUMN_NAME, 
+                c.udt_name as COLUMN_TYPE, 
+                c.is_nullable as IS_NULLABLE, 
+                CASE WHEN pk.column_name IS NOT NULL THEN 'PRI' ELSE '' END as COLUMN_KEY, 
+                COALESCE(col_description(format('%I.%I', c.table_schema, c.table_name)::regclass, c.ordinal_position), '') as COLUMN_COMMENT, 
+                c.ordinal_position as ORDINAL_POSITION
+            FROM information_schema.columns c
+            LEFT JOIN (
+                SELECT kcu.table_schema, kcu.table_name, kcu.column_name
+                FROM information_schema.table_constraints tc
+                JOIN information_schema.key_column_usage kcu
+                    ON kcu.constraint_schema = tc.constraint_schema
+                    AND kcu.constraint_name = tc.constraint_name
+                WHERE tc.constraint_type = 'PRIMARY KEY'
+            ) pk
+                ON pk.table_schema = c.table_schema
+                AND pk.table_name = c.table_name
+                AND pk.column_name = c.column_name
+            WHERE c.table_schema = ?
+        """;
+    }
+
+    @Override
+    public String catalogTableColumn() {
+        return "c.table_name";
+    }
+
+    @Override
+    public String catalogOrdinalColumn() {
+        return "c.ordinal_position";
+    }
+
+    @Override
+    public String commentsBaseSql() {
+        return "SELECT table_schema as TABLE_SCHEMA, table_name as TABLE_NAME, column_name as COLUMN_NAME, "
+             + "col_description(format('%I.%I', table_schema, table_name)::regclass, ordinal_position) as COLUMN_COMMENT "
+             + "FROM information_schema.columns WHERE ";
+    }
+
+    @Override
+    public String commentsPredicate() {
+        return "(table_schema = ? AND table_name = ?)";
+    }
+
+    @Override
+    public String schemaCommentsSql() {
+        return """
+            SELECT column_name as COLUMN_NAME,
+                col_description(format('%I.%I', table_schema, table_name)::regclass, ordinal_position) as COLUMN_COMMENT
+            FROM information_schema.columns
+            WHERE table_schema = ?
+        """;
+    }
+
+    @Override
+    public String changeMarkerSql() {
+        // pg_class gets a new row version (xmin) on ALTER TABLE, relfilenode changes on rewrites,
+        // pg_attribute row versions cover column type/default changes that don't touch pg_class,
+        // and COMMENT ON TABLE/COLUMN only touches pg_description, so its content is hashed in
+        return """
+            SELECT c.xmin::text || ':' || c.relfilenode || ':' ||
+                (SELECT MAX(a.xmin::text::bigint) FROM pg_catalog.pg_attribute a WHERE a.attrelid = c.oid) || ':' ||
+                (SELECT COALESCE(md5(string_agg(d.objsubid || '=' || d.description, E'\\n' ORDER BY d.objsubid)), '')
+                 FROM pg_catalog.pg_description d
+                 WHERE d.objoid = c.oid AND d.classoid = 'pg_catalog.pg_class'::regclass)
+            FROM pg_catalog.pg_class c
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            WHERE n.nspname = ? AND c.relname = ?
+        """;
+    }
+
+    @Override
+    public String schemaChangeMarkersSql() {
+        return """
+            SELECT c.relname AS TABLE_NAME, c.xmin::text || ':' || c.relfilenode || ':' ||
+                (SELECT MAX(a.xmin::text::bigint) FROM pg_catalog.pg_attribute a WHERE a.attrelid = c.oid) || ':' ||
+                (SELECT COALESCE(md5(string_agg(d.objsubid || '=' || d.description, E'\\n' ORDER BY d.objsubid)), '')
+                 FROM pg_catalog.pg_description d
+                 WHERE d.objoid = c.oid AND d.classoid = 'pg_catalog.pg_class'::regclass) AS MARKER
+            FROM pg_catalog.pg_class c
+            JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace
+            WHERE n.nspname = ? AND c.relkind IN ('r', 'p', 'v', 'm', 'f')
+        """;
+    }
+
+    @Override
+    public List<String> describeFallbacks(String query) {
+        return List.of("SELECT * FROM (" + query + ") AS _wrapper_table LIMIT 0");
+    }
+
+    @Override
+    public String catalogIdentifier(String identifier) {
+        // Unquoted identifiers are folded to lower case
+        return identifier.toLowerCase(java.util.Locale.ROOT);
+    }
+}
@@ -0,0 +1,70 @@
+package com.tablegen.dto;
+
+import com.tablegen.generator.TemplateType;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Several tables of one schema generated into a single ZIP. The inherited fields (connection or
+ * snapshot, template, exclude/only) are defaults that each table spec may override; table and
+ * sqlQuery are not used.
+ */
+public class BatchGenerateRequest extends GenerateRequest {
+    private List<TableSpec> tables;
+
+    public List<TableSpec> getTables() {
+        return tables;
+    }
+
+    public void setTables(List<TableSpec> tables) {
+        this.tables = tables;
+    }
+
+    public static class TableSpec {
+        private String table;
+        private TemplateType templateType; // null: the batch default
+        private String templateFile;
+        private Set<String> exclude;
+        private Set<String> only;
+
+        public String getTable() {
+            return table;
+        }
+
+        public void setTable(String table) {
+            this.table = table;
+        }
+
+        public TemplateType getTemplateType() {
+            return templateType;
+        }
+
+        public void setTemplateType(TemplateType templateType) {
+            this.templateType = templateType;
+        }
+
+        public String getTemplateFile() {
+            return templateFile;
+        }
+
+        public void setTemplateFile(String templateFile) {
+            this.templateFile = templateFile;
+        }
+
+        public Set<String> getExclude() {
+            return exclude;
+        }
+
+        public void setExclude(Set<String> exclude) {
+            this.exclude = exclude;
+        }
+
+        public Set<String> getOnly() {
+            return only;
+        }
+
+        public void setOnly(Set<String> only) {
+            this.only = only;
+        }
+    }
+}
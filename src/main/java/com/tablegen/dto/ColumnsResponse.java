@@ -0,0 +1,34 @@
+package com.tablegen.dto;
+
+import com.tablegen.core.ColumnMeta;
+
+import java.util.List;
+
+/**
+ * Unfiltered column metadata of one table or query, as returned by /api/columns. The client keeps it
+ * and sends it back to /api/render, so changing filters or templates needs no database.
+ */
+public class ColumnsResponse {
+    private final String tableName;
+    private final String fingerprint;
+    private final List<ColumnMeta> columns;
+
+    public ColumnsResponse(String tableName, String fingerprint, List<ColumnMeta> columns) {
+        this.tableName = tableName;
+        this.fingerprint = fingerprint;
+        this.columns = columns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /** Identifies the column list; doubles as its ETag. */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public List<ColumnMeta> getColumns() {
+        return columns;
+    }
+}
@@ -11,6 +11,8 @@ public class GenerateRequest {
     private String table;
     private String sqlQuery; // For Custom SQL (JOINs)
     private TemplateType templateType = TemplateType.HTML; // Default
+    private String templateFile; // For TemplateType.FILE, relative to tablegen.templates.dir
+    private String snapshot; // Metadata snapshot file relative to tablegen.snapshots.dir; replaces the DB
     private Set<String> exclude;
     private Set<String> only;
 
@@ -70,6 +72,14 @@ public class GenerateRequest {
         this.templateType = templateType;
     }
 
+    public String getTemplateFile() {
+        return templateFile;
+    }
+
+    public void setTemplateFile(String templateFile) {
+        this.templateFile = templateFile;
+    }
+
     public Set<String> getExclude() {
         return exclude;
     }
@@ -85,4 +95,12 @@ public class GenerateRequest {
     public void setOnly(Set<String> only) {
         this.only = only;
     }
-}
\ No newline at end of file
+
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(String snapshot) {
+        this.snapshot = snapshot;
+    }
+}
@@ -1,25 +1,57 @@
 package com.tablegen.dto;
 
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.generator.TableGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Result of a generation request. Holds the filtered columns and the generator rather than the
+ * rendered text so the output can be streamed to its destination without intermediate copies.
+ */
 public class GenerateResponse {
-    private String tableName;
-    private String generatedCode;
-    private int columnCount;
+    private final String tableName;
+    private final List<ColumnMeta> columns;
+    private final TableGenerator generator;
+    private final String fingerprint;
+
+    public GenerateResponse(String tableName, List<ColumnMeta> columns, TableGenerator generator) {
+        this(tableName, columns, generator, null);
+    }
 
-    public GenerateResponse(String tableName, String generatedCode, int columnCount) {
+    public GenerateResponse(String tableName, List<ColumnMeta> columns, TableGenerator generator, String fingerprint) {
         this.tableName = tableName;
-        this.generatedCode = generatedCode;
-        this.columnCount = columnCount;
+        this.columns = columns;
+        this.generator = generator;
+        this.fingerprint = fingerprint;
     }
 
     public String getTableName() {
         return tableName;
     }
 
+    /**
+     * Renders the output into a String. Prefer {@link #writeTo(Writer)} when the destination is a stream.
+     */
     public String getGeneratedCode() {
-        return generatedCode;
+        return generator.generate(columns);
+    }
+
+    /**
+     * Identifies the rendered output (template plus filtered columns); equal fingerprints mean identical
+     * output, so it doubles as a strong ETag. Null when not computed.
+     */
+    public String getFingerprint() {
+        return fingerprint;
     }
 
     public int getColumnCount() {
-        return columnCount;
+        return columns.size();
+    }
+
+    public void writeTo(Writer out) throws IOException {
+        generator.generate(columns, out);
     }
 }
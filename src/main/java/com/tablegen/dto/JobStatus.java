@@ -0,0 +1,84 @@
+package com.tablegen.dto;
+
+import java.util.List;
+
+/**
+ * Snapshot of an asynchronous generation job, returned by /api/jobs and sent as the "status" event.
+ */
+public class JobStatus {
+    private final String id;
+    private final String state;
+    private final int done;
+    private final int total;
+    private final List<TableTiming> tables;
+    private final String error;
+    private final long resultBytes;
+
+    public JobStatus(String id, String state, int done, int total, List<TableTiming> tables, String error, long resultBytes) {
+        this.id = id;
+        this.state = state;
+        this.done = done;
+        this.total = total;
+        this.tables = tables;
+        this.error = error;
+        this.resultBytes = resultBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /** QUEUED, RUNNING, SUCCEEDED or FAILED */
+    public String getState() {
+        return state;
+    }
+
+    public int getDone() {
+        return done;
+    }
+
+    /** Number of tables, 0 until the metadata has been read. */
+    public int getTotal() {
+        return total;
+    }
+
+    public List<TableTiming> getTables() {
+        return tables;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /** Size of the downloadable ZIP once the job succeeded. */
+    public long getResultBytes() {
+        return resultBytes;
+    }
+
+    /**
+     * One finished table, also sent on its own as the "table" event.
+     */
+    public static class TableTiming {
+        private final String table;
+        private final long millis;
+        private final long bytes;
+
+        public TableTiming(String table, long millis, long bytes) {
+            this.table = table;
+            this.millis = millis;
+            this.bytes = bytes;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.tablegen.dto;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.generator.TemplateType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Renders columns the client already has (from /api/columns) without touching a database.
+ */
+public class RenderRequest {
+    private String table;
+    private List<ColumnMeta> columns;
+    private TemplateType templateType = TemplateType.HTML; // Default
+    private String templateFile; // For TemplateType.FILE, relative to tablegen.templates.dir
+    private Set<String> exclude;
+    private Set<String> only;
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public List<ColumnMeta> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<ColumnMeta> columns) {
+        this.columns = columns;
+    }
+
+    public TemplateType getTemplateType() {
+        return templateType;
+    }
+
+    public void setTemplateType(TemplateType templateType) {
+        this.templateType = templateType;
+    }
+
+    public String getTemplateFile() {
+        return templateFile;
+    }
+
+    public void setTemplateFile(String templateFile) {
+        this.templateFile = templateFile;
+    }
+
+    public Set<String> getExclude() {
+        return exclude;
+    }
+
+    public void setExclude(Set<String> exclude) {
+        this.exclude = exclude;
+    }
+
+    public Set<String> getOnly() {
+        return only;
+    }
+
+    public void setOnly(Set<String> only) {
+        this.only = only;
+    }
+}
@@ -0,0 +1,216 @@
+package com.tablegen.generator;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.core.StringUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A layout file compiled into a flat list of segments. Rendering walks the segments and
+ * the columns; the source text is never looked at again.
+ *
+ * <pre>
+ * ## comment, dropped
+ * &lt;table&gt;                        literal line, emitted as-is
+ * &#64;header &lt;th&gt;%label%&lt;/th&gt;     header cell, repeated per column
+ * &#64;row &lt;tr&gt;                      row wrapper start
+ * &#64;cell &lt;td&gt;%name%&lt;/td&gt;        body cell, repeated per column
+ * &#64;money &lt;td class="num"&gt;%name%&lt;/td&gt;  body cell used instead of &#64;cell for money columns
+ * &#64;end &lt;/tr&gt;                      row wrapper end
+ * </pre>
+ * Placeholders in header/cell/money lines: %name%, %label% (comment or humanized name), %type%, %index%.
+ * Consecutive lines with the same directive form one multi-line cell.
+ */
+final class CompiledTemplate {
+
+    private enum Field {
+        NAME("%name%"), LABEL("%label%"), TYPE("%type%"), INDEX("%index%");
+
+        // Spelled out rather than derived from name(), which a default-locale toLowerCase() would break (e.g. tr)
+        private final String token;
+
+        Field(String token) {
+            this.token = token;
+        }
+    }
+
+    private enum Kind { HEADER, CELL, MONEY }
+
+    private sealed interface Segment permits Literal, HeaderLoop, BodyLoop {}
+
+    private record Literal(String text) implements Segment {}
+
+    private record HeaderLoop(Object[] parts) implements Segment {}
+
+    // money may be null, in which case money columns use the plain cell
+    private record BodyLoop(Object[] cell, Object[] money) implements Segment {}
+
+    private final List<Segment> segments;
+
+    private CompiledTemplate(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    static CompiledTemplate compile(List<String> lines) {
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        Kind pendingKind = null;
+        StringBuilder pending = new StringBuilder();
+        Object[] pendingCell = null;
+        Object[] pendingMoney = null;
+
+        for (int i = 0; i <= lines.size(); i++) {
+            String line = i < lines.size() ? lines.get(i) : null;
+            Kind kind = line == null ? null : directiveKind(line);
+
+            // Close the current multi-line directive when the directive changes
+            if (pendingKind != null && kind != pendingKind) {
+                Object[] parts = parseParts(pending.toString());
+                if (pendingKind == Kind.HEADER) {
+                    flushLiteral(literal, segments);
+                    segments.add(new HeaderLoop(parts));
+                } else if (pendingKind == Kind.CELL) {
+                    pendingCell = parts;
+                } else {
+                    pendingMoney = parts;
+                }
+                pendingKind = null;
+                pending.setLength(0);
+            }
+
+            // A body loop ends once neither @cell nor @money follows
+            boolean bodyDirective = kind == Kind.CELL || kind == Kind.MONEY;
+            if (!bodyDirective && (pendingCell != null || pendingMoney != null)) {
+                if (pendingCell == null) {
+                    throw new IllegalArgumentException("Template has @money without @cell (line " + i + ")");
+                }
+                flushLiteral(literal, segments);
+                segments.add(new BodyLoop(pendingCell, pendingMoney));
+                pendingCell = null;
+                pendingMoney = null;
+            }
+
+            if (line == null || line.startsWith("##")) {
+                continue;
+            }
+            if (kind != null) {
+                if (pending.length() > 0) pending.append('\n');
+                pending.append(directiveBody(line));
+                pendingKind = kind;
+                continue;
+            }
+
+            String text = line;
+            if (isDirective(line, "@row") || isDirective(line, "@end")) {
+                text = directiveBody(line);
+            } else if (line.startsWith("@")) {
+                throw new IllegalArgumentException("Unknown template directive at line " + (i + 1) + ": " + line);
+            }
+            if (literal.length() > 0 || !segments.isEmpty()) literal.append('\n');
+            literal.append(text);
+        }
+        flushLiteral(literal, segments);
+        return new CompiledTemplate(List.copyOf(segments));
+    }
+
+    void render(List<ColumnMeta> columns, Writer out, TableGenerator generator) throws IOException {
+        boolean first = true;
+        for (Segment segment : segments) {
+            if (segment instanceof Literal literal) {
+                out.write(literal.text());
+                first = false;
+                continue;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnMeta col = columns.get(i);
+                Object[] parts;
+                if (segment instanceof HeaderLoop header) {
+                    parts = header.parts();
+                } else {
+                    BodyLoop body = (BodyLoop) segment;
+                    parts = body.money() != null && generator.isMoneyColumn(col.name()) ? body.money() : body.cell();
+                }
+                if (!first) out.write('\n');
+                first = false;
+                writeParts(parts, col, i + 1, out);
+            }
+        }
+    }
+
+    private static void writeParts(Object[] parts, ColumnMeta col, int index, Writer out) throws IOException {
+        for (Object part : parts) {
+            if (part instanceof String text) {
+                out.write(text);
+                continue;
+            }
+            switch ((Field) part) {
+                case NAME -> out.append(col.name());
+                case LABEL -> {
+                    String headerText = col.comment();
+                    if (headerText == null || headerText.isBlank()) {
+                        headerText = StringUtils.humanize(col.name());
+                    }
+                    out.append(headerText);
+                }
+                case TYPE -> out.append(col.type());
+                case INDEX -> out.write(Integer.toString(index));
+            }
+        }
+    }
+
+    private static void flushLiteral(StringBuilder literal, List<Segment> segments) {
+        if (literal.length() > 0) {
+            segments.add(new Literal(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    private static Kind directiveKind(String line) {
+        if (isDirective(line, "@header")) return Kind.HEADER;
+        if (isDirective(line, "@cell")) return Kind.CELL;
+        if (isDirective(line, "@money")) return Kind.MONEY;
+        return null;
+    }
+
+    private static boolean isDirective(String line, String directive) {
+        return line.startsWith(directive)
+                && (line.length() == directive.length() || line.charAt(directive.length()) == ' ');
+    }
+
+    // Everything after the directive and one separating space, so indentation is kept
+    private static String directiveBody(String line) {
+        int space = line.indexOf(' ');
+        return space < 0 ? "" : line.substring(space + 1);
+    }
+
+    private static Object[] parseParts(String text) {
+        List<Object> parts = new ArrayList<>();
+        int start = 0;
+        int i = 0;
+        while (i < text.length()) {
+            Field field = text.charAt(i) == '%' ? fieldAt(text, i) : null;
+            if (field == null) {
+                i++;
+                continue;
+            }
+            if (i > start) parts.add(text.substring(start, i));
+            parts.add(field);
+            i += field.token.length();
+            start = i;
+        }
+        if (start < text.length()) parts.add(text.substring(start));
+        return parts.toArray();
+    }
+
+    private static Field fieldAt(String text, int percent) {
+        for (Field field : Field.values()) {
+            if (text.startsWith(field.token, percent)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
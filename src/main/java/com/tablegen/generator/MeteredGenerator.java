@@ -0,0 +1,91 @@
+package com.tablegen.generator;
+
+import com.tablegen.core.ColumnMeta;
+import com.tablegen.core.PhaseMetrics;
+import com.tablegen.jfr.RenderEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records render time, UTF-8 output size and column count of another generator, tagged by template
+ * type, as Micrometer meters and as a {@link RenderEvent} for JFR recordings.
+ */
+public class MeteredGenerator implements TableGenerator {
+
+    private final TableGenerator delegate;
+    private final String template;
+
+    public MeteredGenerator(TemplateType type, TableGenerator delegate) {
+        this.delegate = delegate;
+        this.template = type.name().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void generate(List<ColumnMeta> columns, Writer out) throws IOException {
+        long start = System.nanoTime();
+        RenderEvent event = RenderEvent.start();
+        CountingWriter counting = new CountingWriter(out);
+        delegate.generate(columns, counting);
+        event.finish(template, columns.size(), counting.bytes);
+        PhaseMetrics.time(PhaseMetrics.RENDER, start, "template", template);
+        PhaseMetrics.distribution(PhaseMetrics.RENDER_BYTES, "bytes", counting.bytes, "template", template);
+        PhaseMetrics.distribution(PhaseMetrics.RENDER_COLUMNS, "columns", columns.size(), "template", template);
+    }
+
+    @Override
+    public boolean isMoneyColumn(String columnName) {
+        return delegate.isMoneyColumn(columnName);
+    }
+
+    // Counts the bytes the characters take in UTF-8 without encoding them
+    private static final class CountingWriter extends Writer {
+        private final Writer out;
+        private long bytes;
+
+        CountingWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            out.write(c);
+            bytes += utf8Length((char) c);
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) throws IOException {
+            out.write(buf, off, len);
+            for (int i = off; i < off + len; i++) {
+                bytes += utf8Length(buf[i]);
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            out.write(str, off, len);
+            for (int i = off; i < off + len; i++) {
+                bytes += utf8Length(str.charAt(i));
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        // A surrogate pair is 4 bytes, 2 per half
+        private static int utf8Length(char c) {
+            if (c < 0x80) return 1;
+            if (c < 0x800 || Character.isSurrogate(c)) return 2;
+            return 3;
+        }
+    }
+}
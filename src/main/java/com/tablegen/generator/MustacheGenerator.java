@@ -2,42 +2,41 @@ package com.tablegen.generator;
 
 import com.tablegen.core.ColumnMeta;
 import com.tablegen.core.StringUtils;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 public class MustacheGenerator implements TableGenerator {
 
     @Override
-    public String generate(List<ColumnMeta> columns) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("<table>\n");
+    public void generate(List<ColumnMeta> columns, Writer out) throws IOException {
+        out.append("<table>\n");
         
         // THEAD
-        sb.append("  <thead>\n");
-        sb.append("    <tr>\n");
+        out.append("  <thead>\n");
+        out.append("    <tr>\n");
         for (ColumnMeta col : columns) {
             String headerText = col.comment();
             if (headerText == null || headerText.isBlank()) {
                 headerText = StringUtils.humanize(col.name());
             }
-            sb.append("      <th>").append(headerText).append("</th>\n");
+            out.append("      <th>").append(headerText).append("</th>\n");
         }
-        sb.append("    </tr>\n");
-        sb.append("  </thead>\n");
+        out.append("    </tr>\n");
+        out.append("  </thead>\n");
 
         // TBODY
-        sb.append("  <tbody>\n");
-        sb.append("    {{#rows}}\n");
-        sb.append("    <tr>\n");
+        out.append("  <tbody>\n");
+        out.append("    {{#rows}}\n");
+        out.append("    <tr>\n");
         
         for (ColumnMeta col : columns) {
-            sb.append("      <td>{{").append(col.name()).append("}}</td>\n");
+            out.append("      <td>{{").append(col.name()).append("}}</td>\n");
         }
         
-        sb.append("    </tr>\n");
-        sb.append("    {{/rows}}\n");
-        sb.append("  </tbody>\n");
-        sb.append("</table>");
-        
-        return sb.toString();
+        out.append("    </tr>\n");
+        out.append("    {{/rows}}\n");
+        out.append("  </tbody>\n");
+        out.append("</table>");
     }
 }
@@ -1,6 +1,10 @@
 package com.tablegen.generator;
 
 import com.tablegen.core.ColumnMeta;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 import java.util.Set;
 
@@ -8,7 +12,25 @@ public interface TableGenerator {
     
     Set<String> MONEY_KEYWORDS = Set.of("amt", "amount", "fee", "price");
 
-    String generate(List<ColumnMeta> columns);
+    /**
+     * Writes the generated template straight to the writer (file, HTTP response, ...)
+     * without building an intermediate String.
+     */
+    void generate(List<ColumnMeta> columns, Writer out) throws IOException;
+
+    /**
+     * Convenience wrapper around {@link #generate(List, Writer)} for callers that need the whole output.
+     */
+    default String generate(List<ColumnMeta> columns) {
+        StringWriter out = new StringWriter();
+        try {
+            generate(columns, out);
+        } catch (IOException e) {
+            // StringWriter never throws
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
 
     default boolean isMoneyColumn(String columnName) {
         if (columnName == null) return false;
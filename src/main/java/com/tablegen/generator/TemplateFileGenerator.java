@@ -0,0 +1,56 @@
+package com.tablegen.generator;
+
+import com.tablegen.core.ColumnMeta;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders a user-supplied layout file (see {@link CompiledTemplate} for the syntax).
+ *
+ * Files are compiled once and cached by path; each render only stats the file and recompiles
+ * when its modification time or size changed, so edits are picked up without a restart.
+ */
+public class TemplateFileGenerator implements TableGenerator {
+
+    private static final ConcurrentHashMap<Path, Cached> CACHE = new ConcurrentHashMap<>();
+
+    private final Path path;
+
+    public TemplateFileGenerator(Path path) {
+        this.path = path.toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void generate(List<ColumnMeta> columns, Writer out) throws IOException {
+        load(path).render(columns, out, this);
+    }
+
+    private static CompiledTemplate load(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        long modified = attrs.lastModifiedTime().toMillis();
+        long size = attrs.size();
+
+        Cached cached = CACHE.get(path);
+        if (cached != null && cached.modified == modified && cached.size == size) {
+            return cached.template;
+        }
+
+        CompiledTemplate template;
+        try {
+            template = CompiledTemplate.compile(Files.readAllLines(path, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(path.getFileName() + ": " + e.getMessage(), e);
+        }
+        CACHE.put(path, new Cached(template, modified, size));
+        return template;
+    }
+
+    private record Cached(CompiledTemplate template, long modified, long size) {}
+}
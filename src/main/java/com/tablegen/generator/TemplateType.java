@@ -3,7 +3,8 @@ package com.tablegen.generator;
 public enum TemplateType {
     THYMELEAF,
     MUSTACHE,
-    HTML;
+    HTML,
+    FILE; // user-supplied layout file, see TemplateFileGenerator
 
     public static TemplateType fromString(String value) {
         if (value == null) return HTML;
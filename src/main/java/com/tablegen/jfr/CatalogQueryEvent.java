@@ -0,0 +1,82 @@
+package com.tablegen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One catalog or comment SQL statement, from prepare to the last row.
+ */
+@Name("com.tablegen.CatalogQuery")
+@Label("Catalog Query")
+@Category({"TableGen", "Metadata"})
+@Description("A catalog, comment or change-marker query run by MetaReader")
+@StackTrace(false)
+public class CatalogQueryEvent extends Event {
+
+    @Label("Dialect")
+    String dialect;
+
+    @Label("Kind")
+    @Description("columns, schema columns, comments, schema comments, change marker or change markers")
+    String kind;
+
+    @Label("Tables")
+    @Description("Tables named in the query; 0 for a whole schema")
+    int tables;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Execute Time")
+    @Description("Until executeQuery returned")
+    @Timespan(Timespan.NANOSECONDS)
+    long executeTime;
+
+    @Label("Fetch Time")
+    @Description("Reading the rows after executeQuery returned")
+    @Timespan(Timespan.NANOSECONDS)
+    long fetchTime;
+
+    private transient long startNanos;
+    private transient long executedNanos;
+
+    /**
+     * Creates and begins the event; a disabled event costs no more than the allocation the JIT removes.
+     */
+    public static CatalogQueryEvent start(String kind, int tables) {
+        CatalogQueryEvent event = new CatalogQueryEvent();
+        event.kind = kind;
+        event.tables = tables;
+        event.begin();
+        if (event.isEnabled()) {
+            event.startNanos = System.nanoTime();
+        }
+        return event;
+    }
+
+    /** Marks the end of execution and the start of fetching. */
+    public void executed() {
+        if (isEnabled()) {
+            executedNanos = System.nanoTime();
+        }
+    }
+
+    public void finish(String dialect, long rows) {
+        if (!shouldCommit()) {
+            return;
+        }
+        long now = System.nanoTime();
+        this.dialect = dialect;
+        this.rows = rows;
+        if (executedNanos != 0) {
+            executeTime = executedNanos - startNanos;
+            fetchTime = now - executedNanos;
+        }
+        commit();
+    }
+}
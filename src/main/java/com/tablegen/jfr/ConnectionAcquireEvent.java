@@ -0,0 +1,63 @@
+package com.tablegen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Borrowing a connection from a pool: waiting for a permit, validating an idle connection or opening
+ * a new one. The URL is not recorded since it may carry credentials.
+ */
+@Name("com.tablegen.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"TableGen", "Connection"})
+@Description("Borrowing a pooled JDBC connection, including opening it when none is idle")
+@StackTrace(false)
+public class ConnectionAcquireEvent extends Event {
+
+    @Label("Dialect")
+    String dialect;
+
+    @Label("Opened")
+    @Description("True when a new physical connection was opened, false when an idle one was reused")
+    boolean opened;
+
+    @Label("Permit Wait")
+    @Description("Time spent waiting for the pool to have room")
+    @Timespan(Timespan.NANOSECONDS)
+    long permitWait;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    private transient long startNanos;
+
+    public static ConnectionAcquireEvent start() {
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            event.startNanos = System.nanoTime();
+        }
+        return event;
+    }
+
+    public void permitted() {
+        if (isEnabled()) {
+            permitWait = System.nanoTime() - startNanos;
+        }
+    }
+
+    public void finish(String dialect, boolean opened, boolean succeeded) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.dialect = dialect;
+        this.opened = opened;
+        this.succeeded = succeeded;
+        commit();
+    }
+}
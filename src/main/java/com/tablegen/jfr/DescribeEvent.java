@@ -0,0 +1,54 @@
+package com.tablegen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One attempt to describe the result columns of a query-mode SQL.
+ */
+@Name("com.tablegen.Describe")
+@Label("Query Describe")
+@Category({"TableGen", "Metadata"})
+@Description("Reading the result shape of a user query: a describe-only prepare or a dialect fallback wrapper")
+@StackTrace(false)
+public class DescribeEvent extends Event {
+
+    @Label("Dialect")
+    String dialect;
+
+    @Label("Step")
+    @Description("0 for the plain prepare, then the dialect's fallbacks in order")
+    int step;
+
+    @Label("Executed")
+    @Description("Whether the wrapper query had to be executed to get metadata")
+    boolean executed;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    public static DescribeEvent start(int step, boolean executed) {
+        DescribeEvent event = new DescribeEvent();
+        event.step = step;
+        event.executed = executed;
+        event.begin();
+        return event;
+    }
+
+    public void finish(String dialect, int columns, boolean succeeded) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.dialect = dialect;
+        this.columns = columns;
+        this.succeeded = succeeded;
+        commit();
+    }
+}
@@ -0,0 +1,45 @@
+package com.tablegen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Rendering one document. Stack traces are kept so allocation samples can be matched to the generator.
+ */
+@Name("com.tablegen.Render")
+@Label("Template Render")
+@Category({"TableGen", "Render"})
+@Description("Rendering one table's document with a TableGenerator")
+public class RenderEvent extends Event {
+
+    @Label("Template")
+    String template;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Output Size")
+    @Description("UTF-8 bytes written")
+    @DataAmount(DataAmount.BYTES)
+    long bytes;
+
+    public static RenderEvent start() {
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String template, int columns, long bytes) {
+        if (!shouldCommit()) {
+            return;
+        }
+        this.template = template;
+        this.columns = columns;
+        this.bytes = bytes;
+        commit();
+    }
+}
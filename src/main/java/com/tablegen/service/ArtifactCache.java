@@ -0,0 +1,188 @@
+package com.tablegen.service;
+
+import com.tablegen.core.ColumnMeta;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rendered outputs keyed by fingerprint, kept both UTF-8 encoded and gzip-compressed so a repeat
+ * request is answered with a ready byte array: no generation, no encoding, no compression.
+ *
+ * Entries are evicted least recently used first once their combined size exceeds the byte budget.
+ * Outputs larger than the per-entry limit are streamed as before and never cached.
+ */
+public class ArtifactCache {
+
+    public static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    public static final int DEFAULT_MAX_ENTRY_BYTES = 1024 * 1024;
+
+    public record Artifact(byte[] body, byte[] gzip) {
+        long size() {
+            return (long) body.length + gzip.length;
+        }
+    }
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final LinkedHashMap<String, Artifact> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    public ArtifactCache() {
+        this(DEFAULT_MAX_BYTES, DEFAULT_MAX_ENTRY_BYTES);
+    }
+
+    public ArtifactCache(long maxBytes, int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * Identifies an output by everything it is rendered from: the template and the filtered columns.
+     * Generators are deterministic, so equal fingerprints mean byte-identical output.
+     *
+     * @param template template type, plus the file's path, size and mtime for FILE templates
+     */
+    public static String fingerprint(String template, List<ColumnMeta> columns) {
+        MessageDigest digest = sha256();
+        update(digest, template);
+        for (ColumnMeta col : columns) {
+            update(digest, col.name());
+            update(digest, col.type());
+            update(digest, col.comment());
+            digest.update((byte) ((col.isNullable() ? 1 : 0) | (col.isKey() ? 2 : 0)));
+            update(digest, Integer.toString(col.ordinalPosition()));
+        }
+        // 128 bits are plenty to tell outputs apart
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    // Length-prefixed so adjacent values cannot run into each other; -1 marks null
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(new byte[] {-1, -1, -1, -1});
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int len = utf8.length;
+        digest.update(new byte[] {(byte) (len >>> 24), (byte) (len >>> 16), (byte) (len >>> 8), (byte) len});
+        digest.update(utf8);
+    }
+
+    public synchronized Artifact get(String fingerprint) {
+        return entries.get(fingerprint);
+    }
+
+    public void put(String fingerprint, byte[] body) {
+        if (body.length > maxEntryBytes) {
+            return;
+        }
+        Artifact artifact = new Artifact(body, gzip(body));
+        synchronized (this) {
+            Artifact previous = entries.put(fingerprint, artifact);
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+            bytes += artifact.size();
+
+            Iterator<Map.Entry<String, Artifact>> it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                bytes -= it.next().getValue().size();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Wraps a response stream so the bytes written through it are also kept, up to the per-entry
+     * limit. Call {@link Capture#store()} once the output is complete.
+     */
+    public Capture capture(String fingerprint, OutputStream out) {
+        return new Capture(fingerprint, out);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(buffer)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // in-memory streams do not fail
+        }
+        return buffer.toByteArray();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // mandatory in every JRE
+        }
+    }
+
+    public final class Capture extends OutputStream {
+        private final String fingerprint;
+        private final OutputStream out;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        private Capture(String fingerprint, OutputStream out) {
+            this.fingerprint = fingerprint;
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (keep(1)) copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (keep(len)) copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        // Gives up on the copy as soon as the output outgrows a cache entry
+        private boolean keep(int len) {
+            if (copy != null && copy.size() + len > maxEntryBytes) {
+                copy = null;
+            }
+            return copy != null;
+        }
+
+        /** Caches the complete output, unless it was too large. */
+        public void store() {
+            if (copy != null) {
+                put(fingerprint, copy.toByteArray());
+                copy = null;
+            }
+        }
+    }
+}
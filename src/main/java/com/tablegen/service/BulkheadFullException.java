@@ -0,0 +1,19 @@
+package com.tablegen.service;
+
+/**
+ * A database host already has as many requests running and waiting as {@link DatabaseBulkhead} allows.
+ * Mapped to 503 with a Retry-After header.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tablegen.service;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits concurrent JDBC work per database host, so one unresponsive server can only tie up its own
+ * share of threads. Pools for different users or databases on the same host share one compartment.
+ *
+ * A request first tries to take a permit. When all are taken it may wait, but only if fewer than
+ * maxWaiting requests already do, and only up to the wait timeout; otherwise it is rejected at once
+ * with {@link BulkheadFullException}.
+ */
+public class DatabaseBulkhead {
+
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long waitTimeoutMillis;
+    private final ConcurrentHashMap<String, Compartment> compartments = new ConcurrentHashMap<>();
+
+    public DatabaseBulkhead(int maxConcurrent, int maxWaiting, long waitTimeoutMillis) {
+        if (maxConcurrent <= 0 || maxWaiting < 0) {
+            throw new IllegalArgumentException("Bulkhead limits must be positive");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * Released by {@link #close()}; use with try-with-resources.
+     */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public Permit acquire(String dbUrl) throws InterruptedException {
+        String target = targetOf(dbUrl);
+        Compartment compartment = compartments.computeIfAbsent(target, t -> new Compartment(maxConcurrent));
+
+        if (!compartment.permits.tryAcquire()) {
+            if (compartment.waiting.incrementAndGet() > maxWaiting) {
+                compartment.waiting.decrementAndGet();
+                throw new BulkheadFullException("Database " + target + " is busy: " + maxConcurrent
+                        + " requests running and " + maxWaiting + " waiting", retryAfterSeconds());
+            }
+            try {
+                if (!compartment.permits.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new BulkheadFullException("Database " + target + " is busy: no slot freed within "
+                            + waitTimeoutMillis + " ms", retryAfterSeconds());
+                }
+            } finally {
+                compartment.waiting.decrementAndGet();
+            }
+        }
+        return compartment.permits::release;
+    }
+
+    private long retryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitTimeoutMillis + 999));
+    }
+
+    /**
+     * The host (and port) a JDBC URL points at, lower-cased; the whole URL when the shape is unknown.
+     * Handles "//host:port/db", Oracle "@host:port:SID" and "@//host:port/service", and strips
+     * credentials embedded as "user:pass@host".
+     */
+    static String targetOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        String rest;
+        int slashes = url.indexOf("//");
+        int at = url.indexOf('@');
+        if (at >= 0 && (slashes < 0 || at < slashes)) {
+            rest = url.substring(at + 1);
+            if (rest.startsWith("//")) {
+                rest = rest.substring(2);
+            } else if (!rest.startsWith("(")) {
+                // Oracle SID syntax: host:port:SID
+                String[] parts = rest.split(":");
+                return (parts.length > 1 ? parts[0] + ":" + parts[1] : parts[0]).toLowerCase(Locale.ROOT);
+            }
+        } else if (slashes >= 0) {
+            rest = url.substring(slashes + 2);
+        } else {
+            return url;
+        }
+
+        int end = rest.length();
+        for (char c : new char[] {'/', '?', ';'}) {
+            int idx = rest.indexOf(c);
+            if (idx >= 0 && idx < end) end = idx;
+        }
+        String host = rest.substring(0, end);
+        int credentials = host.lastIndexOf('@');
+        if (credentials >= 0) {
+            host = host.substring(credentials + 1);
+        }
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Compartment {
+        final Semaphore permits;
+        final AtomicInteger waiting = new AtomicInteger();
+
+        Compartment(int maxConcurrent) {
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.tablegen.service;
+
+import com.tablegen.dto.JobStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * State of one asynchronous generation job. Written by its worker thread, read by status requests
+ * and the SSE subscribers in {@link #listeners}.
+ */
+public class GenerationJob {
+
+    public enum State { QUEUED, RUNNING, SUCCEEDED, FAILED }
+
+    private final String id;
+    private final List<JobStatus.TableTiming> tables = new CopyOnWriteArrayList<>();
+    final List<SseEmitter> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.QUEUED;
+    private volatile int total;
+    private volatile String error;
+    private volatile byte[] result;
+    private volatile long finishedAt;
+
+    GenerationJob(String id) {
+        this.id = id;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public State state() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state == State.SUCCEEDED || state == State.FAILED;
+    }
+
+    /** The ZIP of a succeeded job, otherwise null. */
+    public byte[] result() {
+        return result;
+    }
+
+    long finishedAt() {
+        return finishedAt;
+    }
+
+    long resultBytes() {
+        byte[] r = result;
+        return r != null ? r.length : 0;
+    }
+
+    void start() {
+        state = State.RUNNING;
+    }
+
+    void total(int total) {
+        this.total = total;
+    }
+
+    JobStatus.TableTiming tableDone(String table, long millis, long bytes) {
+        JobStatus.TableTiming timing = new JobStatus.TableTiming(table, millis, bytes);
+        tables.add(timing);
+        return timing;
+    }
+
+    void succeed(byte[] result) {
+        this.result = result;
+        finish(State.SUCCEEDED);
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finish(State.FAILED);
+    }
+
+    private void finish(State state) {
+        finishedAt = System.currentTimeMillis();
+        this.state = state;
+    }
+
+    public JobStatus status() {
+        List<JobStatus.TableTiming> done = List.copyOf(tables);
+        return new JobStatus(id, state.name(), done.size(), total, done, error, resultBytes());
+    }
+}
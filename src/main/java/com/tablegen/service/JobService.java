@@ -0,0 +1,259 @@
+package com.tablegen.service;
+
+import com.tablegen.core.Deadline;
+import com.tablegen.dto.BatchGenerateRequest;
+import com.tablegen.dto.GenerateResponse;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs long generations (typically a whole schema) in the background so no servlet thread or HTTP
+ * connection is held while the catalog is read.
+ *
+ * Jobs run on a fixed pool with a bounded queue; a full queue rejects the submission with
+ * {@link java.util.concurrent.RejectedExecutionException}. Progress is pushed to SSE subscribers and
+ * the finished ZIP is kept for download until it expires: after the retention time, or earlier,
+ * oldest first, once the retained results exceed the byte budget.
+ *
+ * ZIPs still being written count against the same budget: a running job reserves room before it
+ * buffers more bytes, evicting finished results if needed, and fails once the budget is exhausted.
+ *
+ * A job's catalog reads run under their own deadline (tablegen.jobs.timeout-seconds), so a database
+ * that stops answering cancels the job instead of holding one of the few job threads.
+ */
+@Service
+public class JobService {
+
+    private final TableGenService tableGenService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, GenerationJob> jobs = new ConcurrentHashMap<>();
+    private final long retentionMillis;
+    private final long maxRetainedBytes;
+    private final long eventTimeoutMillis;
+    private final long timeoutMillis;
+    private final AtomicLong bufferedBytes = new AtomicLong(); // reserved by running jobs
+
+    // Room is reserved in steps of this size so the budget is not checked on every small write
+    private static final int RESERVE_STEP = 64 * 1024;
+
+    public JobService(
+            TableGenService tableGenService,
+            @Value("${tablegen.jobs.threads:2}") int threads,
+            @Value("${tablegen.jobs.queue-capacity:16}") int queueCapacity,
+            @Value("${tablegen.jobs.retention-seconds:900}") long retentionSeconds,
+            @Value("${tablegen.jobs.max-retained-bytes:67108864}") long maxRetainedBytes,
+            @Value("${tablegen.jobs.event-timeout-seconds:1800}") long eventTimeoutSeconds,
+            @Value("${tablegen.jobs.timeout-seconds:600}") long timeoutSeconds) {
+        this.tableGenService = tableGenService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "tablegen-job-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        this.retentionMillis = TimeUnit.SECONDS.toMillis(retentionSeconds);
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.eventTimeoutMillis = TimeUnit.SECONDS.toMillis(eventTimeoutSeconds);
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a job for the listed tables, or the whole schema when none are listed.
+     *
+     * @throws IllegalArgumentException when the request lacks a database or snapshot
+     * @throws java.util.concurrent.RejectedExecutionException when the queue is full
+     */
+    public GenerationJob submit(BatchGenerateRequest req) {
+        boolean isSnapshotMode = req.getSnapshot() != null && !req.getSnapshot().isBlank();
+        if (!isSnapshotMode && (req.getDbUrl() == null || req.getUser() == null || req.getSchema() == null || req.getSchema().isBlank())) {
+            throw new IllegalArgumentException("Missing required fields: dbUrl, user, schema");
+        }
+        expire();
+
+        GenerationJob job = new GenerationJob(UUID.randomUUID().toString());
+        jobs.put(job.id(), job);
+        try {
+            executor.execute(() -> run(job, req));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id());
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * @return the job, or null if it is unknown or has expired
+     */
+    public GenerationJob get(String id) {
+        expire();
+        return jobs.get(id);
+    }
+
+    /**
+     * Sends the current status right away, then a "table" event per finished table and a final
+     * "status" event, after which the stream completes.
+     */
+    public SseEmitter subscribe(GenerationJob job) {
+        SseEmitter emitter = new SseEmitter(eventTimeoutMillis);
+        job.listeners.add(emitter);
+        emitter.onCompletion(() -> job.listeners.remove(emitter));
+        emitter.onTimeout(() -> job.listeners.remove(emitter));
+        emitter.onError(e -> job.listeners.remove(emitter));
+
+        send(job, emitter, "status", job.status());
+        // The job may have finished before this emitter was registered
+        if (job.isFinished() && job.listeners.remove(emitter)) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    private void run(GenerationJob job, BatchGenerateRequest req) {
+        job.start();
+        publish(job, "status", job.status());
+        try (Deadline deadline = Deadline.after(timeoutMillis)) {
+            // 1. Metadata for every table in one catalog read, cancelled at the job's deadline
+            List<GenerateResponse> responses = tableGenService.prepareTables(req, deadline);
+            job.total(responses.size());
+            publish(job, "status", job.status());
+
+            // 2. Render into an in-memory ZIP within the byte budget, reporting each table as it is written
+            try (BudgetedBuffer zip = new BudgetedBuffer()) {
+                tableGenService.writeZip(responses, zip,
+                        (response, millis, bytes) -> publish(job, "table", job.tableDone(response.getTableName(), millis, bytes)));
+                job.succeed(zip.toByteArray());
+            }
+        } catch (Exception e) {
+            job.fail(e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+
+        publish(job, "status", job.status());
+        for (SseEmitter emitter : job.listeners) {
+            emitter.complete();
+        }
+        job.listeners.clear();
+        expire();
+    }
+
+    private void publish(GenerationJob job, String event, Object data) {
+        for (SseEmitter emitter : job.listeners) {
+            send(job, emitter, event, data);
+        }
+    }
+
+    // A subscriber that went away must not affect the job
+    private static void send(GenerationJob job, SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            job.listeners.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    // Finished jobs past the retention time go first, then the oldest results until finished and
+    // running jobs together fit the budget
+    private synchronized void expire() {
+        long cutoff = System.currentTimeMillis() - retentionMillis;
+        jobs.values().removeIf(job -> job.isFinished() && job.finishedAt() < cutoff);
+
+        long retained = retainedBytes() + bufferedBytes.get();
+        if (retained <= maxRetainedBytes) {
+            return;
+        }
+        List<GenerationJob> finished = jobs.values().stream()
+                .filter(GenerationJob::isFinished)
+                .sorted(Comparator.comparingLong(GenerationJob::finishedAt))
+                .toList();
+        for (GenerationJob job : finished) {
+            if (retained <= maxRetainedBytes) {
+                break;
+            }
+            jobs.remove(job.id());
+            retained -= job.resultBytes();
+        }
+    }
+
+    private long retainedBytes() {
+        return jobs.values().stream().mapToLong(GenerationJob::resultBytes).sum();
+    }
+
+    private synchronized boolean reserve(long bytes) {
+        bufferedBytes.addAndGet(bytes);
+        if (retainedBytes() + bufferedBytes.get() <= maxRetainedBytes) {
+            return true;
+        }
+        expire();
+        if (retainedBytes() + bufferedBytes.get() <= maxRetainedBytes) {
+            return true;
+        }
+        bufferedBytes.addAndGet(-bytes);
+        return false;
+    }
+
+    /**
+     * A job's ZIP buffer; fails the write that would take the jobs past tablegen.jobs.max-retained-bytes.
+     * Closing it returns the reservation, by then the finished result is counted instead.
+     */
+    private final class BudgetedBuffer extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private long reserved;
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureRoom(1);
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureRoom(len);
+            buffer.write(b, off, len);
+        }
+
+        byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public void close() {
+            bufferedBytes.addAndGet(-reserved);
+            reserved = 0;
+        }
+
+        private void ensureRoom(int len) throws IOException {
+            long needed = buffer.size() + len - reserved;
+            if (needed <= 0) {
+                return;
+            }
+            long step = Math.max(needed, RESERVE_STEP);
+            if (!reserve(step)) {
+                throw new IOException("Result exceeds the job budget tablegen.jobs.max-retained-bytes ("
+                        + maxRetainedBytes + " bytes, shared with other jobs)");
+            }
+            reserved += step;
+        }
+    }
+}
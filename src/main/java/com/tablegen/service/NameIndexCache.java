@@ -0,0 +1,103 @@
+package com.tablegen.service;
+
+import com.tablegen.core.NameIndex;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Name indexes per schema, loaded once and then refreshed in the background.
+ *
+ * The first lookup of a schema waits for its load (concurrent first lookups share it). Afterwards every
+ * lookup is answered from memory; once an index is older than the refresh interval, the lookup that
+ * notices starts a reload on the executor and keeps answering from the old index until it is replaced.
+ * A failed reload keeps the old index and is retried after another interval.
+ */
+public class NameIndexCache<K> {
+
+    private final long refreshMillis;
+    private final int maxEntries;
+    private final Executor refresher;
+    private final LinkedHashMap<K, Entry> entries;
+    private final SingleFlight<K, Entry> loads = new SingleFlight<>();
+
+    public NameIndexCache(long refreshSeconds, int maxEntries, Executor refresher) {
+        this.refreshMillis = TimeUnit.SECONDS.toMillis(refreshSeconds);
+        this.maxEntries = maxEntries;
+        this.refresher = refresher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry> eldest) {
+                return size() > NameIndexCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The index for the key, loading it first if there is none yet.
+     *
+     * @param loader reads the index; also runs the background refresh this lookup may start, so it must
+     *               not depend on the calling request (e.g. its deadline). Loaders are not kept between
+     *               lookups, so neither are the credentials they capture.
+     * @param waitMillis how long to wait for a first load already in flight
+     */
+    public NameIndex get(K key, Callable<NameIndex> loader, long waitMillis) throws Exception {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return loads.execute(key, () -> {
+                Entry loaded = new Entry(loader.call());
+                synchronized (entries) {
+                    entries.put(key, loaded);
+                }
+                return loaded;
+            }, waitMillis, e -> false).index;
+        }
+
+        if (entry.isStale(refreshMillis) && entry.refreshing.compareAndSet(false, true)) {
+            refresher.execute(() -> refresh(key, entry, loader));
+        }
+        return entry.index;
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void refresh(K key, Entry old, Callable<NameIndex> loader) {
+        try {
+            Entry fresh = new Entry(loader.call());
+            synchronized (entries) {
+                // Not re-added if it was evicted meanwhile
+                entries.replace(key, old, fresh);
+            }
+        } catch (Exception e) {
+            old.loadedAt = System.currentTimeMillis();
+        } finally {
+            old.refreshing.set(false);
+        }
+    }
+
+    private static final class Entry {
+        private final NameIndex index;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long loadedAt;
+
+        Entry(NameIndex index) {
+            this.index = index;
+            this.loadedAt = System.currentTimeMillis();
+        }
+
+        boolean isStale(long refreshMillis) {
+            return System.currentTimeMillis() - loadedAt >= refreshMillis;
+        }
+    }
+}
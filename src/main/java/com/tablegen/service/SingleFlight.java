@@ -0,0 +1,107 @@
+package com.tablegen.service;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller (the leader) runs the work, callers
+ * arriving while it is in flight wait for and share its result or exception. Nothing is kept once the
+ * flight lands, so this deduplicates concurrent work only; caching is left to the caller.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * Counters since startup. {@code coalesced / calls} is the hit rate.
+     */
+    public record Stats(long calls, long leaders, long coalesced, int inFlight, int waiting, int maxWaiters) {
+        public double hitRate() {
+            return calls == 0 ? 0 : (double) coalesced / calls;
+        }
+    }
+
+    private static final class Flight<V> {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        final AtomicInteger waiters = new AtomicInteger();
+    }
+
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger maxWaiters = new AtomicInteger();
+
+    /**
+     * Runs the task, or waits up to {@code waitMillis} for an identical one already in flight.
+     *
+     * @param retry failures of someone else's flight that this caller should not inherit, e.g. the
+     *              leader's own deadline; the caller then tries again, usually as the new leader
+     * @throws TimeoutException if the shared flight does not land within {@code waitMillis}
+     */
+    public V execute(K key, Callable<V> task, long waitMillis, Predicate<Throwable> retry) throws Exception {
+        calls.incrementAndGet();
+        while (true) {
+            Flight<V> own = new Flight<>();
+            Flight<V> flight = flights.putIfAbsent(key, own);
+            if (flight == null) {
+                leaders.incrementAndGet();
+                return lead(key, own, task);
+            }
+
+            coalesced.incrementAndGet();
+            try {
+                return await(flight, waitMillis);
+            } catch (Exception e) {
+                if (!retry.test(e)) {
+                    throw e;
+                }
+                // Counted once as a call; the retry is a lead or a wait like any other
+                coalesced.decrementAndGet();
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(calls.get(), leaders.get(), coalesced.get(), flights.size(), waiting.get(), maxWaiters.get());
+    }
+
+    private V lead(K key, Flight<V> flight, Callable<V> task) throws Exception {
+        try {
+            V value = task.call();
+            flight.result.complete(value);
+            return value;
+        } catch (Throwable e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private V await(Flight<V> flight, long waitMillis) throws Exception {
+        int waiters = flight.waiters.incrementAndGet();
+        maxWaiters.accumulateAndGet(waiters, Math::max);
+        waiting.incrementAndGet();
+        try {
+            return flight.result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // The leader's exception, unwrapped so waiters fail exactly as the leader did
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception ex) {
+                throw ex;
+            }
+            throw (Error) cause;
+        } finally {
+            waiting.decrementAndGet();
+            flight.waiters.decrementAndGet();
+        }
+    }
+}
@@ -1,29 +1,250 @@
 package com.tablegen.service;
 
 import com.tablegen.core.ColumnMeta;
+import com.tablegen.core.ConnectionRegistry;
+import com.tablegen.core.Deadline;
 import com.tablegen.core.MetaReader;
+import com.tablegen.core.MetadataCache;
+import com.tablegen.core.MetadataSnapshot;
+import com.tablegen.core.NameIndex;
+import com.tablegen.core.PhaseMetrics;
+import com.tablegen.core.SnapshotCache;
+import com.tablegen.core.SqlTokenizer;
+import com.tablegen.core.TableRef;
+import com.tablegen.dto.BatchGenerateRequest;
 import com.tablegen.dto.GenerateRequest;
 import com.tablegen.dto.GenerateResponse;
+import com.tablegen.dto.RenderRequest;
 import com.tablegen.generator.HtmlGenerator;
+import com.tablegen.generator.MeteredGenerator;
 import com.tablegen.generator.MustacheGenerator;
 import com.tablegen.generator.TableGenerator;
+import com.tablegen.generator.TemplateFileGenerator;
+import com.tablegen.generator.TemplateType;
 import com.tablegen.generator.ThymeleafGenerator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 public class TableGenService {
 
+    // /api/render takes its columns from the client, so their number is bounded like any request input
+    private static final int MAX_RENDER_COLUMNS = 10_000;
+
+    private final ConnectionRegistry connectionRegistry;
+    private final MetadataCache metadataCache;
+    private final Path templatesDir;
+    private final Path snapshotsDir;
+    private final SnapshotCache snapshots = new SnapshotCache();
+    private final ArtifactCache artifacts;
+    private final DatabaseBulkhead bulkhead;
+    private final ExecutorService jdbcExecutor;
+    private final SingleFlight<GenerationKey, GenerateResponse> flights = new SingleFlight<>();
+    private final NameIndexCache<NameIndexKey> nameIndexes;
+    private final int queryTimeoutSeconds;
+    private final long requestTimeoutMillis;
+
+    public TableGenService(
+            @Value("${tablegen.pool.max-pools:16}") int maxPools,
+            @Value("${tablegen.pool.max-size:4}") int maxPoolSize,
+            @Value("${tablegen.pool.idle-timeout-seconds:300}") long idleTimeoutSeconds,
+            @Value("${tablegen.pool.validation-timeout-seconds:2}") int validationTimeoutSeconds,
+            @Value("${tablegen.cache.ttl-seconds:60}") long cacheTtlSeconds,
+            @Value("${tablegen.cache.max-entries:1000}") int cacheMaxEntries,
+            @Value("${tablegen.templates.dir:tablegen-templates}") String templatesDir,
+            @Value("${tablegen.snapshots.dir:tablegen-snapshots}") String snapshotsDir,
+            @Value("${tablegen.query.timeout-seconds:30}") int queryTimeoutSeconds,
+            @Value("${tablegen.request.timeout-seconds:60}") long requestTimeoutSeconds,
+            @Value("${tablegen.db.connect-timeout-seconds:10}") int connectTimeoutSeconds,
+            @Value("${tablegen.db.socket-timeout-seconds:300}") int socketTimeoutSeconds,
+            @Value("${tablegen.artifacts.max-bytes:33554432}") long artifactMaxBytes,
+            @Value("${tablegen.artifacts.max-entry-bytes:1048576}") int artifactMaxEntryBytes,
+            @Value("${tablegen.bulkhead.max-concurrent:4}") int bulkheadMaxConcurrent,
+            @Value("${tablegen.bulkhead.max-waiting:16}") int bulkheadMaxWaiting,
+            @Value("${tablegen.bulkhead.wait-timeout-ms:2000}") long bulkheadWaitTimeoutMillis,
+            @Value("${tablegen.jdbc.max-threads:64}") int jdbcMaxThreads,
+            @Value("${tablegen.names.refresh-seconds:300}") long namesRefreshSeconds,
+            @Value("${tablegen.names.max-schemas:64}") int namesMaxSchemas) {
+        this.connectionRegistry = new ConnectionRegistry(maxPools, maxPoolSize, idleTimeoutSeconds, validationTimeoutSeconds,
+                connectTimeoutSeconds, socketTimeoutSeconds);
+        this.metadataCache = new MetadataCache(cacheTtlSeconds, cacheMaxEntries);
+        this.templatesDir = Paths.get(templatesDir).toAbsolutePath().normalize();
+        this.snapshotsDir = Paths.get(snapshotsDir).toAbsolutePath().normalize();
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.requestTimeoutMillis = TimeUnit.SECONDS.toMillis(requestTimeoutSeconds);
+        this.artifacts = new ArtifactCache(artifactMaxBytes, artifactMaxEntryBytes);
+        this.bulkhead = new DatabaseBulkhead(bulkheadMaxConcurrent, bulkheadMaxWaiting, bulkheadWaitTimeoutMillis);
+        this.jdbcExecutor = newJdbcExecutor(jdbcMaxThreads);
+        this.nameIndexes = new NameIndexCache<>(namesRefreshSeconds, namesMaxSchemas, jdbcExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jdbcExecutor.shutdownNow();
+        connectionRegistry.close();
+    }
+
+    /**
+     * A deadline for one request's database work, from tablegen.request.timeout-seconds.
+     * The caller closes it when the request is done.
+     */
+    public Deadline newDeadline() {
+        return Deadline.after(requestTimeoutMillis);
+    }
+
+    /**
+     * Runs blocking work (connects, catalog queries) off the servlet threads, on virtual threads when
+     * the runtime has them. The bulkhead bounds how much of it targets any one database host.
+     */
+    public <T> CompletableFuture<T> offload(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        jdbcExecutor.execute(() -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    // Virtual threads are looked up reflectively so the build keeps targeting Java 17
+    private static ExecutorService newJdbcExecutor(int maxThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "tablegen-jdbc-" + threadCount.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
     public GenerateResponse generate(GenerateRequest req) throws Exception {
+        return generate(req, Deadline.unbounded());
+    }
+
+    /**
+     * Connecting and every catalog query end at the deadline; cancelling it stops the running statement.
+     *
+     * Identical database requests arriving while one is in flight share its metadata read and result.
+     * A waiter is not failed by the leader's deadline; it retries within its own.
+     */
+    public GenerateResponse generate(GenerateRequest req, Deadline deadline) throws Exception {
+        GenerationKey key = generationKey(req);
+        if (key == null) {
+            return generateUncoalesced(req, deadline);
+        }
+        try {
+            return flights.execute(key, () -> generateUncoalesced(req, deadline), deadline.remainingMillis(),
+                    e -> e instanceof SQLTimeoutException && !deadline.isDone());
+        } catch (TimeoutException e) {
+            throw deadline.timeout(null);
+        }
+    }
+
+    /**
+     * Calls, leaders and coalesced waiters of {@link #generate(GenerateRequest, Deadline)} since startup.
+     */
+    public SingleFlight.Stats coalescingStats() {
+        return flights.stats();
+    }
+
+    // Everything that decides the response, including the login (user and password hash): a request must
+    // not be answered with metadata read under another login. Only held while the flight runs.
+    private record GenerationKey(String dbUrl, String login, String schema, String table,
+                                 String query, String templateKey, Set<String> exclude, Set<String> only) {}
+
+    // Null when the request is not coalesced: snapshots need no database, invalid requests fail on their own
+    private GenerationKey generationKey(GenerateRequest req) throws IOException {
+        boolean isSnapshotMode = req.getSnapshot() != null && !req.getSnapshot().isBlank();
+        if (isSnapshotMode || req.getDbUrl() == null || req.getUser() == null) {
+            return null;
+        }
+        boolean isQueryMode = req.getSqlQuery() != null && !req.getSqlQuery().isBlank();
+        if (!isQueryMode && req.getTable() == null) {
+            return null;
+        }
+        TableRef ref = isQueryMode ? new TableRef(req.getSchema(), req.getTable()) : TableRef.of(req.getSchema(), req.getTable());
+        return new GenerationKey(req.getDbUrl(), login(req), ref.schema(), ref.table(),
+                isQueryMode ? queryFingerprint(req.getSqlQuery()) : null, templateKey(req),
+                req.getExclude() != null ? Set.copyOf(req.getExclude()) : Set.of(),
+                req.getOnly() != null ? Set.copyOf(req.getOnly()) : Set.of());
+    }
+
+    // Token stream of the query, so whitespace, comments and line breaks do not split otherwise equal requests
+    private static String queryFingerprint(String sql) {
+        return SqlTokenizer.tokenize(sql).stream()
+                .map(token -> token.kind() + ":" + token.text())
+                .collect(Collectors.joining("\u0000"));
+    }
+
+    private GenerateResponse generateUncoalesced(GenerateRequest req, Deadline deadline) throws Exception {
+        // 1. Read Metadata
+        List<ColumnMeta> allColumns = readColumns(req, deadline);
+
+        // 2. Filter
+        List<ColumnMeta> filteredColumns = filterColumns(allColumns, req.getExclude(), req.getOnly());
+
+        // 3. Select Generator (rendering happens when the caller writes the response)
+        TableGenerator generator = createGenerator(req);
+
+        return new GenerateResponse(tableName(req.getTable()), filteredColumns, generator,
+                ArtifactCache.fingerprint(templateKey(req), filteredColumns));
+    }
+
+    /**
+     * The unfiltered columns of the request's table or query; exclude, only and the template are ignored.
+     * Table mode is served from a snapshot or the metadata cache when possible.
+     */
+    public List<ColumnMeta> readColumns(GenerateRequest req, Deadline deadline) throws Exception {
         // 1. Validation
         boolean isQueryMode = req.getSqlQuery() != null && !req.getSqlQuery().isBlank();
+        boolean isSnapshotMode = req.getSnapshot() != null && !req.getSnapshot().isBlank();
+
+        if (isSnapshotMode && isQueryMode) {
+            throw new IllegalArgumentException("Query mode needs a database; it cannot use a snapshot");
+        }
 
-        if (req.getDbUrl() == null || req.getUser() == null) {
+        if (!isSnapshotMode && (req.getDbUrl() == null || req.getUser() == null)) {
             throw new IllegalArgumentException("Missing required fields: dbUrl, user");
         }
         
@@ -31,69 +252,436 @@ public class TableGenService {
              throw new IllegalArgumentException("Missing required fields for Table Mode: table");
         }
 
-        // 2. Connect
-        try (Connection conn = DriverManager.getConnection(req.getDbUrl(), req.getUser(), req.getPassword())) {
-            
-            // 3. Read Metadata
-            MetaReader reader = new MetaReader(conn);
-            List<ColumnMeta> allColumns;
-            
-            if (isQueryMode) {
-                allColumns = reader.getColumnsFromQuery(req.getSqlQuery(), req.getSchema());
-                
-                // In Query Mode, MetaReader now tries to fetch comments from origin tables.
-                // If comment is present, it means it's from the DB.
-                // If comment is empty, we fallback to using the Name (Alias) as the effective comment/header.
-                allColumns = allColumns.stream()
-                    .map(c -> {
-                        String effectiveComment = c.comment();
-                        
-                        if (effectiveComment == null || effectiveComment.isBlank()) {
-                            effectiveComment = c.name(); // Fallback to Alias
-                        }
-                        
-                        return new ColumnMeta(
-                            c.name(), 
-                            c.type(), 
-                            c.isNullable(), 
-                            c.isKey(), 
-                            effectiveComment, 
-                            c.ordinalPosition()
-                        );
-                    })
-                    .collect(Collectors.toList());
+        // 2. Read Metadata
+        List<ColumnMeta> allColumns;
+        if (isSnapshotMode) {
+            allColumns = readSnapshotColumns(req);
+        } else {
+            allColumns = isQueryMode ? readQueryColumns(req, deadline) : readTableColumns(req, deadline);
+        }
+
+        if (allColumns.isEmpty()) {
+            throw new RuntimeException("No columns found.");
+        }
+        return allColumns;
+    }
+
+    /**
+     * Renders columns supplied by the client, typically from {@link #readColumns}, without a database.
+     */
+    public GenerateResponse render(RenderRequest req) throws IOException {
+        if (req.getColumns() == null || req.getColumns().isEmpty()) {
+            throw new IllegalArgumentException("Missing required field: columns");
+        }
+        if (req.getColumns().size() > MAX_RENDER_COLUMNS) {
+            throw new IllegalArgumentException("Too many columns: " + req.getColumns().size() + " > " + MAX_RENDER_COLUMNS);
+        }
+        for (ColumnMeta col : req.getColumns()) {
+            if (col == null || col.name() == null || col.type() == null) {
+                throw new IllegalArgumentException("Every column needs a name and a type");
+            }
+        }
+
+        GenerateRequest effective = new GenerateRequest();
+        effective.setTemplateType(req.getTemplateType() != null ? req.getTemplateType() : TemplateType.HTML);
+        effective.setTemplateFile(req.getTemplateFile());
+
+        List<ColumnMeta> filteredColumns = filterColumns(req.getColumns(), req.getExclude(), req.getOnly());
+        return new GenerateResponse(tableName(req.getTable()), filteredColumns, createGenerator(effective),
+                ArtifactCache.fingerprint(templateKey(effective), filteredColumns));
+    }
+
+    private static String tableName(String table) {
+        return table == null || table.isBlank() ? "custom_query_result" : table;
+    }
+
+    /**
+     * The already rendered output of a response, or null if it has to be generated.
+     */
+    public ArtifactCache.Artifact cachedArtifact(GenerateResponse response) {
+        return response.getFingerprint() != null ? artifacts.get(response.getFingerprint()) : null;
+    }
+
+    /**
+     * Renders a response as UTF-8 into the stream and keeps the bytes for later identical requests.
+     */
+    public void writeTo(GenerateResponse response, OutputStream out) throws IOException {
+        if (response.getFingerprint() == null) {
+            writeUtf8(response, out);
+            return;
+        }
+        ArtifactCache.Capture capture = artifacts.capture(response.getFingerprint(), out);
+        writeUtf8(response, capture);
+        capture.store();
+    }
+
+    private static void writeUtf8(GenerateResponse response, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        response.writeTo(writer);
+        writer.flush();
+    }
+
+    /**
+     * Generates output for every table in the schema from a single catalog read.
+     */
+    public List<GenerateResponse> generateAll(GenerateRequest req) throws Exception {
+        return generateAll(req, Deadline.unbounded());
+    }
+
+    public List<GenerateResponse> generateAll(GenerateRequest req, Deadline deadline) throws Exception {
+        boolean isSnapshotMode = req.getSnapshot() != null && !req.getSnapshot().isBlank();
+        if (!isSnapshotMode && (req.getDbUrl() == null || req.getUser() == null || req.getSchema() == null || req.getSchema().isBlank())) {
+            throw new IllegalArgumentException("Missing required fields: dbUrl, user, schema");
+        }
+
+        Map<String, List<ColumnMeta>> tables;
+        if (isSnapshotMode) {
+            tables = snapshots.get(resolveInside(snapshotsDir, req.getSnapshot(), "Snapshot")).getAll();
+        } else {
+            try (DatabaseBulkhead.Permit permit = bulkhead.acquire(req.getDbUrl());
+                 Connection conn = connectionRegistry.getConnection(req.getDbUrl(), req.getUser(), req.getPassword(), deadline)) {
+                tables = new MetaReader(conn, MetaReader.DEFAULT_QUERY_TIMEOUT_SECONDS, deadline).getColumnsBySchema(req.getSchema());
+            } catch (SQLException e) {
+                throw timeoutIfDone(deadline, e);
+            }
+        }
+
+        if (tables.isEmpty()) {
+            throw new RuntimeException("No tables found in schema " + req.getSchema());
+        }
+
+        TableGenerator generator = createGenerator(req);
+        String templateKey = templateKey(req);
+        List<GenerateResponse> responses = new ArrayList<>(tables.size());
+        for (Map.Entry<String, List<ColumnMeta>> entry : tables.entrySet()) {
+            // Warm the cache so follow-up single-table requests skip the catalog
+            if (!isSnapshotMode) {
+                metadataCache.put(req.getDbUrl(), login(req), new TableRef(req.getSchema(), entry.getKey()), entry.getValue());
+            }
+
+            List<ColumnMeta> filteredColumns = filterColumns(entry.getValue(), req.getExclude(), req.getOnly());
+            responses.add(new GenerateResponse(entry.getKey(), filteredColumns, generator,
+                    ArtifactCache.fingerprint(templateKey, filteredColumns)));
+        }
+        return responses;
+    }
+
+    /**
+     * Reads the metadata of every table in the batch with one catalog query (or from the snapshot) and
+     * returns one response per spec, in request order. Rendering is left to {@link #writeZip}, so
+     * metadata errors surface before any output is sent.
+     */
+    public List<GenerateResponse> prepareBatch(BatchGenerateRequest req) throws Exception {
+        return prepareBatch(req, Deadline.unbounded());
+    }
+
+    public List<GenerateResponse> prepareBatch(BatchGenerateRequest req, Deadline deadline) throws Exception {
+        // 1. Validation
+        if (req.getTables() == null || req.getTables().isEmpty()) {
+            throw new IllegalArgumentException("Missing required field: tables");
+        }
+        boolean isSnapshotMode = req.getSnapshot() != null && !req.getSnapshot().isBlank();
+        if (!isSnapshotMode && (req.getDbUrl() == null || req.getUser() == null || req.getSchema() == null || req.getSchema().isBlank())) {
+            throw new IllegalArgumentException("Missing required fields: dbUrl, user, schema");
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (BatchGenerateRequest.TableSpec spec : req.getTables()) {
+            if (spec.getTable() == null || spec.getTable().isBlank()) {
+                throw new IllegalArgumentException("Missing required field in tables: table");
+            }
+            names.add(spec.getTable());
+        }
+
+        // 2. One read for all distinct tables
+        Map<String, List<ColumnMeta>> tables = new LinkedHashMap<>();
+        if (isSnapshotMode) {
+            MetadataSnapshot snapshot = snapshots.get(resolveInside(snapshotsDir, req.getSnapshot(), "Snapshot"));
+            for (String name : names) {
+                List<ColumnMeta> columns = snapshot.getColumns(name);
+                if (columns != null) tables.put(name, columns);
+            }
+        } else {
+            try (DatabaseBulkhead.Permit permit = bulkhead.acquire(req.getDbUrl());
+                 Connection conn = connectionRegistry.getConnection(req.getDbUrl(), req.getUser(), req.getPassword(), deadline)) {
+                tables = new MetaReader(conn, MetaReader.DEFAULT_QUERY_TIMEOUT_SECONDS, deadline).getColumnsByTables(req.getSchema(), names);
+            } catch (SQLException e) {
+                throw timeoutIfDone(deadline, e);
+            }
+            tables.forEach((table, columns) -> metadataCache.put(req.getDbUrl(), login(req), new TableRef(req.getSchema(), table), columns));
+        }
+
+        // 3. Filter and pick the generator per spec
+        List<GenerateResponse> responses = new ArrayList<>(req.getTables().size());
+        List<String> missing = new ArrayList<>();
+        for (BatchGenerateRequest.TableSpec spec : req.getTables()) {
+            List<ColumnMeta> columns = findTable(tables, spec.getTable());
+            if (columns == null || columns.isEmpty()) {
+                missing.add(spec.getTable());
+                continue;
+            }
+            GenerateRequest effective = specRequest(req, spec);
+            List<ColumnMeta> filteredColumns = filterColumns(columns, effective.getExclude(), effective.getOnly());
+            responses.add(new GenerateResponse(spec.getTable(), filteredColumns, createGenerator(effective),
+                    ArtifactCache.fingerprint(templateKey(effective), filteredColumns)));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("No columns found for tables: " + String.join(", ", missing));
+        }
+        return responses;
+    }
+
+    /**
+     * The listed tables of a batch, or every table of the schema when the list is empty.
+     */
+    public List<GenerateResponse> prepareTables(BatchGenerateRequest req, Deadline deadline) throws Exception {
+        if (req.getTables() == null || req.getTables().isEmpty()) {
+            return generateAll(req, deadline);
+        }
+        return prepareBatch(req, deadline);
+    }
+
+    /**
+     * Streams the responses as a ZIP with one "table.html" entry each. Every entry is pushed to the
+     * client as soon as it is complete, so memory stays flat however many tables there are.
+     */
+    public void writeZip(List<GenerateResponse> responses, OutputStream out) throws IOException {
+        writeZip(responses, out, null);
+    }
+
+    /**
+     * Receives one call per finished ZIP entry, e.g. to report job progress.
+     */
+    public interface ZipProgress {
+        void entryWritten(GenerateResponse response, long millis, long bytes);
+    }
+
+    public void writeZip(List<GenerateResponse> responses, OutputStream out, ZipProgress progress) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+        Map<String, Integer> usedNames = new HashMap<>();
+        for (GenerateResponse response : responses) {
+            // The same table may be requested twice with different options: table.html, table-2.html, ...
+            int n = usedNames.merge(response.getTableName().toLowerCase(), 1, Integer::sum);
+            ZipEntry entry = new ZipEntry(response.getTableName() + (n > 1 ? "-" + n : "") + ".html");
+            long start = System.nanoTime();
+            zip.putNextEntry(entry);
+
+            ArtifactCache.Artifact cached = cachedArtifact(response);
+            if (cached != null) {
+                zip.write(cached.body());
             } else {
-                allColumns = reader.getColumns(req.getSchema(), req.getTable());
+                writeTo(response, zip);
+            }
+            zip.closeEntry();
+            zip.flush();
+            if (progress != null) {
+                // closeEntry() records the uncompressed size
+                progress.entryWritten(response, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), entry.getSize());
             }
+        }
+        zip.finish();
+    }
 
-            if (allColumns.isEmpty()) {
-                throw new RuntimeException("No columns found.");
+    // Catalogs may return the name in another case than it was requested
+    private static List<ColumnMeta> findTable(Map<String, List<ColumnMeta>> tables, String name) {
+        List<ColumnMeta> columns = tables.get(name);
+        if (columns != null) {
+            return columns;
+        }
+        for (Map.Entry<String, List<ColumnMeta>> entry : tables.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
             }
+        }
+        return null;
+    }
+
+    // The batch defaults with one spec's overrides applied
+    private static GenerateRequest specRequest(BatchGenerateRequest req, BatchGenerateRequest.TableSpec spec) {
+        GenerateRequest effective = new GenerateRequest();
+        effective.setTable(spec.getTable());
+        effective.setTemplateType(spec.getTemplateType() != null ? spec.getTemplateType() : req.getTemplateType());
+        effective.setTemplateFile(spec.getTemplateFile() != null ? spec.getTemplateFile() : req.getTemplateFile());
+        effective.setExclude(spec.getExclude() != null ? spec.getExclude() : req.getExclude());
+        effective.setOnly(spec.getOnly() != null ? spec.getOnly() : req.getOnly());
+        return effective;
+    }
+
+    /**
+     * The table and column names of the request's schema (or snapshot) for prefix search. Only the first
+     * lookup of a schema reads the catalog, all tables in one query; later lookups are answered from
+     * memory while the index is refreshed in the background every tablegen.names.refresh-seconds.
+     */
+    public NameIndex nameIndex(GenerateRequest req, Deadline deadline) throws Exception {
+        if (req.getSnapshot() != null && !req.getSnapshot().isBlank()) {
+            Path file = resolveInside(snapshotsDir, req.getSnapshot(), "Snapshot");
+            return nameIndexes.get(new NameIndexKey(null, null, null, file),
+                    () -> NameIndex.of(snapshots.get(file).getAll()), deadline.remainingMillis());
+        }
+        if (req.getDbUrl() == null || req.getUser() == null || req.getSchema() == null || req.getSchema().isBlank()) {
+            throw new IllegalArgumentException("Missing required fields: dbUrl, user, schema");
+        }
+        String dbUrl = req.getDbUrl();
+        String user = req.getUser();
+        String password = req.getPassword();
+        String schema = req.getSchema();
+        try {
+            return nameIndexes.get(new NameIndexKey(dbUrl, MetadataCache.login(user, password), schema, null),
+                    () -> loadNameIndex(dbUrl, user, password, schema), deadline.remainingMillis());
+        } catch (TimeoutException e) {
+            throw deadline.timeout(null);
+        }
+    }
+
+    // Keyed by login (user and password hash, never the password): names read under one login are not
+    // served to another or to a wrong password
+    private record NameIndexKey(String dbUrl, String login, String schema, Path snapshot) {}
 
-            // 4. Filter
-            List<ColumnMeta> filteredColumns = filterColumns(allColumns, req.getExclude(), req.getOnly());
-
-            // 5. Generate
-            TableGenerator generator = switch (req.getTemplateType()) {
-                case THYMELEAF -> new ThymeleafGenerator();
-                case MUSTACHE -> new MustacheGenerator();
-                case HTML -> new HtmlGenerator();
-                default -> new HtmlGenerator();
-            };
-
-            String output = generator.generate(filteredColumns);
-            
-            String tableName = req.getTable();
-            if (tableName == null || tableName.isBlank()) {
-                tableName = "custom_query_result";
+    // Runs for the first lookup and for background refreshes, so it has its own deadline rather than a request's
+    private NameIndex loadNameIndex(String dbUrl, String user, String password, String schema) throws Exception {
+        Map<String, List<ColumnMeta>> tables;
+        try (Deadline deadline = newDeadline()) {
+            try (DatabaseBulkhead.Permit permit = bulkhead.acquire(dbUrl);
+                 Connection conn = connectionRegistry.getConnection(dbUrl, user, password, deadline)) {
+                tables = new MetaReader(conn, MetaReader.DEFAULT_QUERY_TIMEOUT_SECONDS, deadline).getColumnsBySchema(schema);
+            } catch (SQLException e) {
+                throw timeoutIfDone(deadline, e);
             }
-            
-            return new GenerateResponse(tableName, output, filteredColumns.size());
         }
+        // Seeded under the same login only, so the table picked from the index is a cache hit for this user alone
+        tables.forEach((table, columns) -> metadataCache.put(dbUrl, MetadataCache.login(user, password), new TableRef(schema, table), columns));
+        return NameIndex.of(tables);
+    }
+
+    /**
+     * Drops cached metadata for the given server. A null schema or table invalidates all matching entries.
+     *
+     * @return number of cache entries removed
+     */
+    public int invalidateMetadata(String dbUrl, String schema, String table) {
+        if (dbUrl == null || dbUrl.isBlank()) {
+            int size = metadataCache.size();
+            metadataCache.clear();
+            return size;
+        }
+        if (table != null && !table.isBlank()) {
+            TableRef ref = TableRef.of(schema, table);
+            return metadataCache.invalidate(dbUrl, ref.schema(), ref.table());
+        }
+        return metadataCache.invalidate(dbUrl, schema, null);
+    }
+
+    // Cached metadata is only served to the login that read it
+    private static String login(GenerateRequest req) {
+        return MetadataCache.login(req.getUser(), req.getPassword());
+    }
+
+    private List<ColumnMeta> readSnapshotColumns(GenerateRequest req) throws IOException {
+        MetadataSnapshot snapshot = snapshots.get(resolveInside(snapshotsDir, req.getSnapshot(), "Snapshot"));
+        List<ColumnMeta> columns = snapshot.getColumns(TableRef.of(null, req.getTable()).table());
+        return columns != null ? columns : List.of();
+    }
+
+    private List<ColumnMeta> readTableColumns(GenerateRequest req, Deadline deadline) throws SQLException, InterruptedException {
+        TableRef ref = TableRef.of(req.getSchema(), req.getTable());
+        List<ColumnMeta> cached = metadataCache.getIfFresh(req.getDbUrl(), login(req), ref);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Connect (borrowed from the pool, returned on close) once the host has a free slot
+        try (DatabaseBulkhead.Permit permit = bulkhead.acquire(req.getDbUrl());
+             Connection conn = connectionRegistry.getConnection(req.getDbUrl(), req.getUser(), req.getPassword(), deadline)) {
+            return metadataCache.getColumns(req.getDbUrl(), login(req), ref, new MetaReader(conn, MetaReader.DEFAULT_QUERY_TIMEOUT_SECONDS, deadline));
+        } catch (SQLException e) {
+            throw timeoutIfDone(deadline, e);
+        }
+    }
+
+    private List<ColumnMeta> readQueryColumns(GenerateRequest req, Deadline deadline) throws SQLException, InterruptedException {
+        try (DatabaseBulkhead.Permit permit = bulkhead.acquire(req.getDbUrl());
+             Connection conn = connectionRegistry.getConnection(req.getDbUrl(), req.getUser(), req.getPassword(), deadline)) {
+            MetaReader reader = new MetaReader(conn, queryTimeoutSeconds, deadline);
+            List<ColumnMeta> columns = reader.getColumnsFromQuery(req.getSqlQuery(), req.getSchema());
+
+            // In Query Mode, MetaReader now tries to fetch comments from origin tables.
+            // If comment is present, it means it's from the DB.
+            // If comment is empty, we fallback to using the Name (Alias) as the effective comment/header.
+            return columns.stream()
+                .map(c -> {
+                    String effectiveComment = c.comment();
+                    
+                    if (effectiveComment == null || effectiveComment.isBlank()) {
+                        effectiveComment = c.name(); // Fallback to Alias
+                    }
+                    
+                    return new ColumnMeta(
+                        c.name(), 
+                        c.type(), 
+                        c.isNullable(), 
+                        c.isKey(), 
+                        effectiveComment, 
+                        c.ordinalPosition()
+                    );
+                })
+                .collect(Collectors.toList());
+        } catch (SQLException e) {
+            throw timeoutIfDone(deadline, e);
+        }
+    }
+
+    // A driver error caused by the deadline (cancelled statement, closed socket) is reported as the timeout it is
+    private static SQLException timeoutIfDone(Deadline deadline, SQLException e) {
+        if (e instanceof SQLTimeoutException || !deadline.isDone()) {
+            return e;
+        }
+        return deadline.timeout(e);
+    }
+
+    private TableGenerator createGenerator(GenerateRequest req) {
+        TableGenerator generator = switch (req.getTemplateType()) {
+            case THYMELEAF -> new ThymeleafGenerator();
+            case MUSTACHE -> new MustacheGenerator();
+            case HTML -> new HtmlGenerator();
+            case FILE -> new TemplateFileGenerator(resolveTemplateFile(req.getTemplateFile()));
+            default -> new HtmlGenerator();
+        };
+        return new MeteredGenerator(req.getTemplateType(), generator);
+    }
+
+    // Everything about the template that changes the output; a FILE template is identified by its current version
+    private String templateKey(GenerateRequest req) throws IOException {
+        if (req.getTemplateType() != TemplateType.FILE) {
+            return req.getTemplateType().name();
+        }
+        Path file = resolveTemplateFile(req.getTemplateFile());
+        return "FILE:" + file + ":" + Files.size(file) + ":" + Files.getLastModifiedTime(file).toMillis();
+    }
+
+    private Path resolveTemplateFile(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Missing required field for FILE template: templateFile");
+        }
+        return resolveInside(templatesDir, name, "Template file");
+    }
+
+    /**
+     * Template and snapshot files are only served from their configured directory; paths escaping it are rejected.
+     */
+    private static Path resolveInside(Path dir, String name, String label) {
+        Path path = dir.resolve(name).normalize();
+        if (!path.startsWith(dir)) {
+            throw new IllegalArgumentException(label + " must be inside " + dir);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException(label + " not found: " + name);
+        }
+        return path;
     }
 
-    private List<ColumnMeta> filterColumns(List<ColumnMeta> columns, Set<String> exclude, Set<String> only) {
-        return columns.stream()
+    // Package-private and static so the JMH benchmarks can call it directly
+    static List<ColumnMeta> filterColumns(List<ColumnMeta> columns, Set<String> exclude, Set<String> only) {
+        long start = System.nanoTime();
+        List<ColumnMeta> filtered = columns.stream()
                 .filter(col -> {
                     // "only" takes precedence
                     if (only != null && !only.isEmpty()) {
@@ -106,5 +694,7 @@ public class TableGenService {
                     return true;
                 })
                 .collect(Collectors.toList());
+        PhaseMetrics.time(PhaseMetrics.FILTER, start);
+        return filtered;
     }
 }
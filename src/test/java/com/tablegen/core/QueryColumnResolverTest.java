@@ -0,0 +1,72 @@
+package com.tablegen.core;
+
+import com.tablegen.core.QueryColumnResolver.Resolution;
+import com.tablegen.core.QueryColumnResolver.SourceColumn;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryColumnResolverTest {
+
+    @Test
+    void plainColumnsPinToTheirTable() {
+        Resolution r = QueryColumnResolver.resolve("SELECT id, name AS user_name FROM users", "app");
+
+        assertThat(r.lookup("id")).isEqualTo(new SourceColumn("app", "users", "id"));
+        assertThat(r.lookup("USER_NAME")).isEqualTo(new SourceColumn("app", "users", "name"));
+    }
+
+    @Test
+    void starOverPhysicalTable() {
+        Resolution r = QueryColumnResolver.resolve("SELECT * FROM sales.orders", "app");
+
+        assertThat(r.lookup("total")).isEqualTo(new SourceColumn("sales", "orders", "total"));
+    }
+
+    @Test
+    void starOverCte() {
+        Resolution r = QueryColumnResolver.resolve("WITH t AS (SELECT id FROM users) SELECT * FROM t", "app");
+
+        assertThat(r.lookup("id")).isEqualTo(new SourceColumn("app", "users", "id"));
+    }
+
+    @Test
+    void qualifiedStarOverDerivedTable() {
+        Resolution r = QueryColumnResolver.resolve("SELECT x.* FROM (SELECT a.id FROM acct a) x", "app");
+
+        assertThat(r.lookup("id")).isEqualTo(new SourceColumn("app", "acct", "id"));
+    }
+
+    @Test
+    void starOverDerivedStar() {
+        Resolution r = QueryColumnResolver.resolve("SELECT * FROM (SELECT * FROM users) x", "app");
+
+        assertThat(r.lookup("email")).isEqualTo(new SourceColumn("app", "users", "email"));
+    }
+
+    @Test
+    void starOverDerivedJoinKeepsEachColumnsTable() {
+        Resolution r = QueryColumnResolver.resolve(
+                "SELECT * FROM (SELECT o.id, c.name FROM orders o JOIN customers c ON c.id = o.customer_id) x", "app");
+
+        assertThat(r.lookup("id")).isEqualTo(new SourceColumn("app", "orders", "id"));
+        assertThat(r.lookup("name")).isEqualTo(new SourceColumn("app", "customers", "name"));
+    }
+
+    @Test
+    void joinColumnsFollowTheirQualifier() {
+        Resolution r = QueryColumnResolver.resolve(
+                "SELECT o.id, c.id AS customer_id FROM orders o LEFT JOIN customers c ON c.id = o.customer_id", "app");
+
+        assertThat(r.lookup("id")).isEqualTo(new SourceColumn("app", "orders", "id"));
+        assertThat(r.lookup("customer_id")).isEqualTo(new SourceColumn("app", "customers", "id"));
+        assertThat(r.tables()).containsExactly(new TableRef("app", "orders"), new TableRef("app", "customers"));
+    }
+
+    @Test
+    void starOverJoinIsNotPinned() {
+        Resolution r = QueryColumnResolver.resolve("SELECT * FROM orders o JOIN customers c ON c.id = o.customer_id", "app");
+
+        assertThat(r.lookup("id")).isNull();
+    }
+}
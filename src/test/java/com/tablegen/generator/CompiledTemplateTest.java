@@ -0,0 +1,45 @@
+package com.tablegen.generator;
+
+import com.tablegen.core.ColumnMeta;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompiledTemplateTest {
+
+    private static final List<ColumnMeta> COLUMNS = List.of(
+            new ColumnMeta("id", "int", false, true, "", 1),
+            new ColumnMeta("user_name", "varchar", true, false, "Name", 2));
+
+    @Test
+    void replacesEveryPlaceholder() throws Exception {
+        assertThat(render("@header <th>%index% %name% %label% %type%</th>"))
+                .isEqualTo("<th>1 id Id int</th>\n<th>2 user_name Name varchar</th>");
+    }
+
+    @Test
+    void placeholdersDoNotDependOnTheDefaultLocale() throws Exception {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertThat(render("@header <th>%index%</th>")).isEqualTo("<th>1</th>\n<th>2</th>");
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void unknownPlaceholdersStayAsText() throws Exception {
+        assertThat(render("@header <th>%width%%name%</th>")).isEqualTo("<th>%width%id</th>\n<th>%width%user_name</th>");
+    }
+
+    private static String render(String line) throws Exception {
+        StringWriter out = new StringWriter();
+        CompiledTemplate.compile(List.of(line)).render(COLUMNS, out, null);
+        return out.toString();
+    }
+}